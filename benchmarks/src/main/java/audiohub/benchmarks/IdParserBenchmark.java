@@ -0,0 +1,68 @@
+package audiohub.benchmarks;
+
+import audiohub.service.ResourceIdParser;
+import audiohub.service.SongIdParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdParserBenchmark {
+
+    @Param({"SINGLE", "TEN_WITH_SPACES", "MAX_LENGTH_WITH_DUPLICATES"})
+    private String csvShape;
+
+    private String csv;
+    private ResourceIdParser resourceIdParser;
+    private SongIdParser songIdParser;
+
+    @Setup
+    public void setUp() {
+        csv = switch (csvShape) {
+            case "SINGLE" -> "42";
+            case "TEN_WITH_SPACES" -> "1, 2, 3, 4, 5, 6, 7, 8, 9, 10";
+            default -> maxLengthCsv();
+        };
+        resourceIdParser = new ResourceIdParser();
+        songIdParser = new SongIdParser();
+    }
+
+    @Benchmark
+    public Set<Long> resourceIds() {
+        return resourceIdParser.parsePositiveIds(csv);
+    }
+
+    @Benchmark
+    public Set<Long> songIds() {
+        return songIdParser.parsePositiveIds(csv);
+    }
+
+    private static String maxLengthCsv() {
+        StringBuilder csv = new StringBuilder();
+        long id = 1_000_000;
+        while (csv.length() + 8 <= 200) {
+            if (!csv.isEmpty()) {
+                csv.append(',');
+            }
+            csv.append(id);
+            id += csv.length() % 3 == 0 ? 0 : 1; // every few IDs repeats
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package audiohub.benchmarks;
+
+import audiohub.dto.SongDto;
+import audiohub.dto.request.CreateMetadataRequest;
+import audiohub.dto.request.SongMetadataDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uses an ObjectMapper built the way Spring Boot builds the one behind the
+ * MVC message converters and RestClient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private SongDto songDto;
+    private byte[] songDtoJson;
+    private CreateMetadataRequest createMetadataRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        songDto = new SongDto(42L, "Benchmark Song", "Benchmark Artist", "Benchmark Album", "2004", "03:45");
+        songDtoJson = objectMapper.writeValueAsBytes(songDto);
+        createMetadataRequest = new CreateMetadataRequest(42L, SongMetadataDto.builder()
+                .name("Benchmark Song")
+                .artist("Benchmark Artist")
+                .album("Benchmark Album")
+                .year("2004")
+                .duration("03:45")
+                .build());
+    }
+
+    @Benchmark
+    public byte[] writeSongDto() throws IOException {
+        return objectMapper.writeValueAsBytes(songDto);
+    }
+
+    @Benchmark
+    public SongDto readSongDto() throws IOException {
+        return objectMapper.readValue(songDtoJson, SongDto.class);
+    }
+
+    @Benchmark
+    public byte[] writeCreateMetadataRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(createMetadataRequest);
+    }
+}
@@ -0,0 +1,68 @@
+package audiohub.benchmarks;
+
+import audiohub.dto.request.SongMetadataDto;
+import audiohub.service.AudioMetadataExtractor;
+import audiohub.service.Mp3HeaderParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Header parser against the full Tika parse on the same spooled files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataExtractionBenchmark {
+
+    @Param
+    private Mp3Fixture fixture;
+
+    private Path directory;
+    private Path file;
+    private AudioMetadataExtractor extractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("mp3-fixtures-");
+        file = fixture.writeTo(directory);
+        extractor = new AudioMetadataExtractor(new Mp3HeaderParser());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public SongMetadataDto headerParser() {
+        return extractor.extract(file);
+    }
+
+    @Benchmark
+    public SongMetadataDto tika() {
+        return extractor.extractWithTika(file);
+    }
+}
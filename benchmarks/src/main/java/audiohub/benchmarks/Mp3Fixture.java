@@ -0,0 +1,177 @@
+package audiohub.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Synthetic MPEG-1 layer III files (44.1 kHz stereo) with ID3 tags. Frames carry valid
+ * headers and silent payloads, which is all the metadata parsers look at.
+ */
+public enum Mp3Fixture {
+
+    CBR_128K_ID3V23_1MIN(3, 128, 60, 0, false),
+    CBR_128K_ID3V23_4MIN(3, 128, 240, 0, true),
+    CBR_320K_ID3V24_20MIN(4, 320, 1200, 0, false),
+    VBR_XING_ID3V24_4MIN(4, 0, 240, 0, false),
+    CBR_128K_ID3V23_ARTWORK_5MB(3, 128, 240, 5 * 1024 * 1024, false);
+
+    private static final int SAMPLE_RATE = 44100;
+    private static final int SAMPLES_PER_FRAME = 1152;
+    private static final int[] BITRATES_KBPS = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int XING_OFFSET = 36;
+
+    private final int tagVersion;
+    private final int bitrateKbps; // 0 = VBR with a Xing header
+    private final int seconds;
+    private final int artworkBytes;
+    private final boolean id3v1;
+
+    Mp3Fixture(int tagVersion, int bitrateKbps, int seconds, int artworkBytes, boolean id3v1) {
+        this.tagVersion = tagVersion;
+        this.bitrateKbps = bitrateKbps;
+        this.seconds = seconds;
+        this.artworkBytes = artworkBytes;
+        this.id3v1 = id3v1;
+    }
+
+    public Path writeTo(Path directory) throws IOException {
+        Path file = directory.resolve(name().toLowerCase() + ".mp3");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+            out.write(id3v2Tag());
+            writeFrames(out);
+            if (id3v1) {
+                out.write(id3v1Tag());
+            }
+        }
+        return file;
+    }
+
+    private void writeFrames(OutputStream out) throws IOException {
+        int frameCount = (int) ((long) seconds * SAMPLE_RATE / SAMPLES_PER_FRAME);
+        Random random = new Random(42);
+        long paddingRemainder = 0;
+
+        if (bitrateKbps == 0) {
+            byte[] xingFrame = frame(bitrateIndex(128), false);
+            writeAscii(xingFrame, XING_OFFSET, "Xing");
+            writeInt(xingFrame, XING_OFFSET + 4, 0x1);
+            writeInt(xingFrame, XING_OFFSET + 8, frameCount);
+            out.write(xingFrame);
+        }
+
+        for (int i = 0; i < frameCount; i++) {
+            int index = bitrateKbps == 0 ? 5 + random.nextInt(10) : bitrateIndex(bitrateKbps);
+            long bits = 144L * BITRATES_KBPS[index] * 1000;
+            paddingRemainder += bits % SAMPLE_RATE;
+            boolean padding = paddingRemainder >= SAMPLE_RATE;
+            if (padding) {
+                paddingRemainder -= SAMPLE_RATE;
+            }
+            out.write(frame(index, padding));
+        }
+    }
+
+    private byte[] id3v2Tag() throws IOException {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        frames.write(textFrame("TIT2", "Benchmark Song " + ordinal()));
+        frames.write(textFrame("TPE1", "Benchmark Artist"));
+        frames.write(textFrame("TALB", "Benchmark Album"));
+        frames.write(tagVersion == 4 ? textFrame("TDRC", "2004-05-06") : textFrame("TYER", "2004"));
+        if (artworkBytes > 0) {
+            frames.write(artworkFrame());
+        }
+        frames.write(new byte[1024]); // padding
+
+        ByteArrayOutputStream tag = new ByteArrayOutputStream();
+        tag.write("ID3".getBytes(StandardCharsets.US_ASCII));
+        tag.write(new byte[]{(byte) tagVersion, 0, 0});
+        tag.write(synchsafe(frames.size()));
+        frames.writeTo(tag);
+        return tag.toByteArray();
+    }
+
+    private byte[] textFrame(String id, String value) throws IOException {
+        byte[] text = value.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(id.getBytes(StandardCharsets.US_ASCII));
+        frame.write(frameSize(text.length + 1));
+        frame.write(new byte[]{0, 0, 3}); // flags, UTF-8 encoding
+        frame.write(text);
+        return frame.toByteArray();
+    }
+
+    private byte[] artworkFrame() throws IOException {
+        byte[] header = "\0image/jpeg\0\3cover\0".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] image = new byte[artworkBytes];
+        new Random(7).nextBytes(image);
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write("APIC".getBytes(StandardCharsets.US_ASCII));
+        frame.write(frameSize(header.length + image.length));
+        frame.write(new byte[]{0, 0});
+        frame.write(header);
+        frame.write(image);
+        return frame.toByteArray();
+    }
+
+    private byte[] id3v1Tag() {
+        byte[] tag = new byte[128];
+        writeAscii(tag, 0, "TAG");
+        writeAscii(tag, 3, "Benchmark Song");
+        writeAscii(tag, 33, "Benchmark Artist");
+        writeAscii(tag, 63, "Benchmark Album");
+        writeAscii(tag, 93, "2004");
+        return tag;
+    }
+
+    private byte[] frameSize(int size) {
+        if (tagVersion == 4) {
+            return synchsafe(size);
+        }
+        return new byte[]{(byte) (size >>> 24), (byte) (size >>> 16), (byte) (size >>> 8), (byte) size};
+    }
+
+    private static byte[] frame(int bitrateIndex, boolean padding) {
+        int length = 144 * BITRATES_KBPS[bitrateIndex] * 1000 / SAMPLE_RATE + (padding ? 1 : 0);
+        byte[] frame = new byte[length];
+        // sync, MPEG-1, layer III, no CRC, 44.1 kHz, stereo
+        writeInt(frame, 0, 0xFFFB0000 | (bitrateIndex << 12) | (padding ? 1 << 9 : 0));
+        return frame;
+    }
+
+    private static int bitrateIndex(int kbps) {
+        for (int i = 1; i < BITRATES_KBPS.length; i++) {
+            if (BITRATES_KBPS[i] == kbps) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported bitrate: " + kbps);
+    }
+
+    private static byte[] synchsafe(int size) {
+        return new byte[]{
+                (byte) ((size >>> 21) & 0x7F),
+                (byte) ((size >>> 14) & 0x7F),
+                (byte) ((size >>> 7) & 0x7F),
+                (byte) (size & 0x7F)
+        };
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static void writeAscii(byte[] target, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+    }
+}
@@ -0,0 +1,48 @@
+package audiohub.benchmarks;
+
+import audiohub.dto.SongDto;
+import audiohub.entity.SongEntity;
+import audiohub.mapper.SongMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SongMappingBenchmark {
+
+    private SongMapper mapper;
+    private SongDto dto;
+    private SongEntity entity;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(SongMapper.class);
+        dto = new SongDto(42L, "Benchmark Song", "Benchmark Artist", "Benchmark Album", "2004", "03:45");
+        entity = mapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public SongEntity toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public SongDto toDto() {
+        return mapper.toDto(entity);
+    }
+}
@@ -0,0 +1,105 @@
+package audiohub.common;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Parses positive IDs separated by commas or whitespace (e.g. one per line) as they arrive,
+ * without holding the text in memory. Characters are fed one at a time, from a {@link Reader}
+ * or from text that arrives in pieces, e.g. a non-blocking request body; IDs are ASCII, so
+ * they may be fed byte by byte. Errors are thrown as the exceptions the service maps to its
+ * responses.
+ */
+public final class IdListParser {
+
+    private static final int MAX_ID_LENGTH = 19;
+    private static final Pattern POSITIVE_ID_PATTERN = Pattern.compile("[1-9]\\d*");
+
+    private final int maxIds;
+    private final String idName;
+    private final Function<String, ? extends RuntimeException> invalidId;
+    private final Function<String, ? extends RuntimeException> invalidList;
+    private final StringBuilder token = new StringBuilder(MAX_ID_LENGTH + 1);
+    private long[] ids = new long[1024];
+    private int count;
+
+    /**
+     * @param idName      what the IDs identify, for messages, e.g. {@code "song"}
+     * @param invalidId   creates the exception for an ID that isn't a positive integer
+     * @param invalidList creates the exception for a list that is empty or too long
+     */
+    public IdListParser(int maxIds, String idName,
+                        Function<String, ? extends RuntimeException> invalidId,
+                        Function<String, ? extends RuntimeException> invalidList) {
+        this.maxIds = maxIds;
+        this.idName = idName;
+        this.invalidId = invalidId;
+        this.invalidList = invalidList;
+    }
+
+    /**
+     * Feeds the whole reader and finishes.
+     *
+     * @return the IDs sorted and without duplicates
+     */
+    public long[] parse(Reader reader) throws IOException {
+        int c;
+        while ((c = reader.read()) != -1) {
+            accept(c);
+        }
+        return finish();
+    }
+
+    public void accept(int c) {
+        if (c != ',' && !Character.isWhitespace(c)) {
+            if (token.length() > MAX_ID_LENGTH) {
+                throw invalidId.apply(
+                        "Invalid ID format: '%s...'. Only positive integers are allowed".formatted(token)
+                );
+            }
+            token.append((char) c);
+        } else {
+            endToken();
+        }
+    }
+
+    /**
+     * @return the IDs sorted and without duplicates
+     */
+    public long[] finish() {
+        endToken();
+        if (count == 0) {
+            throw invalidList.apply("At least one %s ID must be provided".formatted(idName));
+        }
+
+        return Arrays.stream(ids, 0, count).sorted().distinct().toArray();
+    }
+
+    private void endToken() {
+        if (token.isEmpty()) {
+            return;
+        }
+        if (count == maxIds) {
+            throw invalidList.apply("Too many IDs: maximum allowed is %d".formatted(maxIds));
+        }
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+        }
+        ids[count++] = toPositiveId(token.toString());
+        token.setLength(0);
+    }
+
+    private long toPositiveId(String id) {
+        if (POSITIVE_ID_PATTERN.matcher(id).matches()) {
+            try {
+                return Long.parseLong(id);
+            } catch (NumberFormatException e) {
+                // Longer than Long.MAX_VALUE, reported below
+            }
+        }
+        throw invalidId.apply("Invalid ID format: '%s'. Only positive integers are allowed".formatted(id));
+    }
+}
@@ -0,0 +1,91 @@
+package audiohub.common;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events in virtual-thread mode and logs each one
+ * that exceeds the threshold, with the top of the stack, so blocking inside
+ * {@code synchronized} or native frames shows up before it caps throughput.
+ * <p>
+ * Shared by both services, which pick it and {@link VirtualThreadsProps} up through their
+ * scans of the {@code audiohub} package.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 10;
+
+    private final VirtualThreadsProps props;
+
+    private volatile RecordingStream stream;
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT)
+                .withThreshold(props.pinningThreshold())
+                .withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::logPinnedThread);
+        recording.startAsync();
+        stream = recording;
+
+        log.info("Watching for virtual threads pinned longer than {}", props.pinningThreshold());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void logPinnedThread(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        log.warn("Virtual thread {} pinned its carrier for {} ms:{}",
+                thread == null ? "unknown" : thread.getJavaName(),
+                event.getDuration().toMillis(),
+                formatStackTrace(event.getStackTrace()));
+    }
+
+    private static String formatStackTrace(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " (no stack trace)";
+        }
+
+        return stackTrace.getFrames().stream()
+                .limit(MAX_LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::formatFrame)
+                .collect(Collectors.joining());
+    }
+
+    private static String formatFrame(RecordedFrame frame) {
+        return "%n\tat %s.%s:%d".formatted(
+                frame.getMethod().getType().getName(),
+                frame.getMethod().getName(),
+                frame.getLineNumber()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package audiohub.common;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "virtual-threads")
+public record VirtualThreadsProps(
+
+        @NotNull(message = "Pinning threshold must not be null")
+        Duration pinningThreshold
+) {
+}
@@ -1,6 +1,42 @@
 CREATE TABLE IF NOT EXISTS resources
 (
     id          BIGSERIAL PRIMARY KEY,
-    data        OID       NOT NULL,
-    upload_time TIMESTAMP NOT NULL DEFAULT Now()
+    storage_key VARCHAR(255) NOT NULL,
+    size        BIGINT       NOT NULL,
+    checksum    VARCHAR(64)  NOT NULL,
+    upload_time TIMESTAMP    NOT NULL DEFAULT Now()
+);
+
+-- Hibernate allocates IDs in blocks of 50 (allocationSize) so inserts can be batched
+ALTER SEQUENCE resources_id_seq INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS resources_storage_key_idx ON resources (storage_key);
+CREATE INDEX IF NOT EXISTS resources_checksum_idx ON resources USING hash (checksum);
+
+CREATE TABLE IF NOT EXISTS song_metadata_outbox
+(
+    id              BIGSERIAL PRIMARY KEY,
+    resource_id     BIGINT        NOT NULL,
+    name            VARCHAR(100)  NOT NULL,
+    artist          VARCHAR(100)  NOT NULL,
+    album           VARCHAR(100)  NOT NULL,
+    year            VARCHAR(4)    NOT NULL,
+    duration        VARCHAR(5)    NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP              DEFAULT Now(),
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP     NOT NULL DEFAULT Now(),
+    trace_parent    VARCHAR(55)
+);
+
+ALTER SEQUENCE song_metadata_outbox_id_seq INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS song_metadata_outbox_next_attempt_idx ON song_metadata_outbox (next_attempt_at, id);
+CREATE INDEX IF NOT EXISTS song_metadata_outbox_resource_id_idx ON song_metadata_outbox (resource_id);
+
+-- Large objects released by deletes, which blob-store.reclaimer unlinks in the background
+CREATE TABLE IF NOT EXISTS released_large_objects
+(
+    oid         BIGINT    PRIMARY KEY,
+    released_at TIMESTAMP NOT NULL DEFAULT Now()
 );
@@ -0,0 +1,51 @@
+-- Upgrades a resources table from the original schema, where each row owned its large object in
+-- a "data" OID column, to storage_key/size/checksum. Run it once against an existing resource-db,
+-- before starting resource-service and before init.sql, which then adds the remaining tables:
+--
+--   psql -v ON_ERROR_STOP=1 -f upgrades/001-blob-store-columns.sql -f init.sql
+--
+-- Reads every large object once to size and hash it, all in one transaction. Does nothing on a
+-- database that is already migrated.
+BEGIN;
+
+DO
+$$
+    DECLARE
+        resource RECORD;
+        content  BYTEA;
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM information_schema.columns
+                       WHERE table_schema = current_schema()
+                         AND table_name = 'resources'
+                         AND column_name = 'data') THEN
+            RAISE NOTICE 'resources has no data column, nothing to upgrade';
+            RETURN;
+        END IF;
+
+        ALTER TABLE resources
+            ADD COLUMN IF NOT EXISTS storage_key VARCHAR(255),
+            ADD COLUMN IF NOT EXISTS size        BIGINT,
+            ADD COLUMN IF NOT EXISTS checksum    VARCHAR(64);
+
+        -- The large object stays where it is; its OID becomes the storage key. One row at a
+        -- time, so only one object's content is held in memory
+        FOR resource IN SELECT id, data FROM resources WHERE storage_key IS NULL
+            LOOP
+                content := lo_get(resource.data);
+                UPDATE resources
+                SET storage_key = CAST(resource.data AS text),
+                    size        = length(content),
+                    checksum    = encode(sha256(content), 'hex')
+                WHERE id = resource.id;
+            END LOOP;
+
+        ALTER TABLE resources
+            ALTER COLUMN storage_key SET NOT NULL,
+            ALTER COLUMN size SET NOT NULL,
+            ALTER COLUMN checksum SET NOT NULL,
+            DROP COLUMN data;
+    END
+$$;
+
+COMMIT;
@@ -6,4 +6,12 @@ CREATE TABLE IF NOT EXISTS songs
     album    VARCHAR(100) NOT NULL,
     year     VARCHAR(4)   NOT NULL,
     duration VARCHAR(5)   NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- GET /songs lists in (artist, album, name, id) order and pages with a row comparison on the same columns
+CREATE INDEX IF NOT EXISTS songs_artist_album_name_id_idx ON songs (artist, album, name, id);
+CREATE INDEX IF NOT EXISTS songs_year_artist_album_name_id_idx ON songs (year, artist, album, name, id);
+-- Name prefix (LIKE 'abc%') and fuzzy (<%) search
+CREATE INDEX IF NOT EXISTS songs_name_trgm_idx ON songs USING gin (name gin_trgm_ops);
@@ -0,0 +1,92 @@
+// Mixed traffic across both services that exercises every metric they publish, for watching
+// /actuator/prometheus (or the bundled Prometheus, see README.md) while it runs.
+//
+//   k6 run -e MP3_FILE=./sample.mp3 -e VUS=50 load-tests/metrics-profile.js
+//
+// Per iteration: an upload (every UPLOAD_EVERY-th one with a random tail, so it is new content
+// and goes through the blob write), a full and a ranged download, a song lookup, and a
+// request that fails on purpose (ERROR_RATE) to feed the api.errors counters.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const RESOURCE_URL = __ENV.RESOURCE_URL || 'http://localhost:8080';
+const SONG_URL = __ENV.SONG_URL || 'http://localhost:8081';
+const MP3 = open(__ENV.MP3_FILE || './sample.mp3', 'b');
+const VUS = parseInt(__ENV.VUS || '50');
+const UPLOAD_EVERY = parseInt(__ENV.UPLOAD_EVERY || '4');
+const ERROR_RATE = parseFloat(__ENV.ERROR_RATE || '0.05');
+
+export const options = {
+    stages: [
+        { duration: '30s', target: VUS },
+        { duration: __ENV.DURATION || '5m', target: VUS },
+        { duration: '15s', target: 0 },
+    ],
+    thresholds: {
+        // The deliberate errors aren't checked, so only expected traffic counts here
+        'checks': ['rate>0.99'],
+    },
+};
+
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < 20; i++) {
+        ids.push(upload(true).json('id'));
+    }
+    return { ids };
+}
+
+export default function (data) {
+    if (__ITER % UPLOAD_EVERY === 0) {
+        const res = upload(__ITER % (UPLOAD_EVERY * 2) === 0);
+        check(res, { 'upload 200': (r) => r.status === 200 });
+    }
+
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    const params = { responseType: 'none' };
+
+    check(http.get(`${RESOURCE_URL}/resources/${id}`, params), {
+        'download 200': (r) => r.status === 200,
+    });
+    check(http.get(`${RESOURCE_URL}/resources/${id}`, Object.assign({ headers: { Range: 'bytes=0-65535' } }, params)), {
+        'range 206': (r) => r.status === 206,
+    });
+    // Metadata is delivered asynchronously, so a fresh resource may not have a song yet
+    check(http.get(`${SONG_URL}/songs/${id}`, params), {
+        'song 200 or 404': (r) => r.status === 200 || r.status === 404,
+    });
+
+    if (Math.random() < ERROR_RATE) {
+        sendBadRequest();
+    }
+}
+
+function upload(unique) {
+    let body = MP3;
+    if (unique) {
+        const tail = new Uint8Array(16).map(() => Math.floor(Math.random() * 256));
+        const bytes = new Uint8Array(MP3.byteLength + tail.length);
+        bytes.set(new Uint8Array(MP3), 0);
+        bytes.set(tail, MP3.byteLength);
+        body = bytes.buffer;
+    }
+    return http.post(`${RESOURCE_URL}/resources`, body, {
+        headers: { 'Content-Type': 'audio/mpeg' },
+    });
+}
+
+function sendBadRequest() {
+    const params = { responseType: 'none', tags: { op: 'error' } };
+    switch (Math.floor(Math.random() * 4)) {
+        case 0:
+            return http.get(`${RESOURCE_URL}/resources/not-a-number`, params);
+        case 1:
+            return http.get(`${RESOURCE_URL}/resources/999999999999`, params);
+        case 2:
+            return http.post(`${RESOURCE_URL}/resources`, 'not an mp3', Object.assign({
+                headers: { 'Content-Type': 'audio/mpeg' },
+            }, params));
+        default:
+            return http.get(`${SONG_URL}/songs?id=1,x`, params);
+    }
+}
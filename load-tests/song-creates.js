@@ -0,0 +1,74 @@
+// Create throughput of song-service when most creates are duplicates, the way redelivered
+// metadata arrives.
+//
+//   k6 run -e VUS=64 -e DUPLICATE_RATIO=0.9 --summary-export=creates.json load-tests/song-creates.js
+//
+// setup() makes sure EXISTING songs (IDs from EXISTING_MIN_ID) are present, via POST /songs/batch.
+// Each iteration then sends one POST /songs: with probability DUPLICATE_RATIO for one of those IDs
+// (409 expected), otherwise for an ID that is new to this run (200 expected). Both count as
+// success; compare http_reqs and http_req_duration per op tag. New IDs start at NEW_ID_BASE,
+// so delete them afterwards (or use a fresh NEW_ID_BASE) before the next run.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const VUS = parseInt(__ENV.VUS || '64');
+const DUPLICATE_RATIO = parseFloat(__ENV.DUPLICATE_RATIO || '0.9');
+const EXISTING = parseInt(__ENV.EXISTING || '10000');
+const EXISTING_MIN_ID = parseInt(__ENV.EXISTING_MIN_ID || '1');
+const NEW_ID_BASE = parseInt(__ENV.NEW_ID_BASE || '100000000');
+const BATCH_SIZE = 1000;
+
+http.setResponseCallback(http.expectedStatuses(200, 409));
+
+export const options = {
+    stages: [
+        { duration: '15s', target: VUS },
+        { duration: __ENV.DURATION || '1m', target: VUS },
+        { duration: '10s', target: 0 },
+    ],
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    for (let first = 0; first < EXISTING; first += BATCH_SIZE) {
+        const count = Math.min(BATCH_SIZE, EXISTING - first);
+        const songs = Array.from({ length: count }, (_, i) => song(EXISTING_MIN_ID + first + i));
+        const res = http.post(`${BASE_URL}/songs/batch`, JSON.stringify(songs), {
+            headers: { 'Content-Type': 'application/json' },
+            tags: { op: 'seed' },
+        });
+        if (res.status !== 200) {
+            throw new Error(`Seeding failed with status ${res.status}`);
+        }
+    }
+}
+
+export default function () {
+    const duplicate = Math.random() < DUPLICATE_RATIO;
+    const id = duplicate
+        ? EXISTING_MIN_ID + Math.floor(Math.random() * EXISTING)
+        : NEW_ID_BASE + __VU * 10000000 + __ITER;
+
+    const res = http.post(`${BASE_URL}/songs`, JSON.stringify(song(id)), {
+        headers: { 'Content-Type': 'application/json' },
+        responseType: 'none',
+        tags: { op: duplicate ? 'duplicate' : 'new' },
+    });
+    check(res, duplicate
+        ? { 'duplicate 409': (r) => r.status === 409 }
+        : { 'new 200': (r) => r.status === 200 });
+}
+
+function song(id) {
+    return {
+        id,
+        name: `Song ${id}`,
+        artist: `Artist ${id % 5000}`,
+        album: `Album ${id % 20000}`,
+        year: '2020',
+        duration: '03:00',
+    };
+}
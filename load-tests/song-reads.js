@@ -0,0 +1,27 @@
+// Read-heavy load against song-service.
+//
+//   k6 run -e VUS=400 -e MAX_ID=1000 load-tests/song-reads.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const VUS = parseInt(__ENV.VUS || '200');
+const MAX_ID = parseInt(__ENV.MAX_ID || '100');
+
+export const options = {
+    stages: [
+        { duration: '30s', target: VUS },
+        { duration: __ENV.DURATION || '2m', target: VUS },
+        { duration: '15s', target: 0 },
+    ],
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration': ['p(95)<200'],
+    },
+};
+
+export default function () {
+    const id = 1 + Math.floor(Math.random() * MAX_ID);
+    const res = http.get(`${BASE_URL}/songs/${id}`);
+    check(res, { 'status 200 or 404': (r) => r.status === 200 || r.status === 404 });
+}
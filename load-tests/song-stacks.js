@@ -0,0 +1,111 @@
+// Compares song-service's servlet stack (Spring MVC + JPA, default) with the reactive one
+// (WebFlux + R2DBC, "reactive" profile) at high concurrency. Each VU keeps one keep-alive
+// connection, so VUS is the number of concurrent client connections.
+//
+//   k6 run -e VUS=2000 -e MAX_ID=1000000 --summary-export=mvc.json load-tests/song-stacks.js
+//
+// Traffic per iteration: a GET /songs/{id} for a random ID, and every LOOKUP_EVERY-th iteration
+// a POST /songs/lookup of 20 IDs and a GET /songs listing page. Run it against a table with more
+// songs than SONG_CACHE_MAX_SIZE, or with SONG_CACHE_MAX_SIZE=0, so reads reach the database.
+//
+// A second scenario scrapes /actuator/prometheus during the plateau and reports, next to
+// http_reqs (throughput):
+//   jvm_memory_bytes            heap + non-heap in use, plus direct and mapped buffers
+//   jvm_threads                 live threads
+//   memory_per_connection_bytes growth of jvm_memory_bytes over the idle baseline, divided by VUS
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const VUS = parseInt(__ENV.VUS || '1000');
+const MIN_ID = parseInt(__ENV.MIN_ID || '1');
+const MAX_ID = parseInt(__ENV.MAX_ID || '1000000');
+const LOOKUP_EVERY = parseInt(__ENV.LOOKUP_EVERY || '10');
+const ARTISTS = parseInt(__ENV.ARTISTS || '5000');
+const RAMP_UP = __ENV.RAMP_UP || '30s';
+const DURATION = __ENV.DURATION || '2m';
+
+const jvmMemory = new Trend('jvm_memory_bytes');
+const jvmThreads = new Trend('jvm_threads');
+const memoryPerConnection = new Trend('memory_per_connection_bytes');
+
+export const options = {
+    scenarios: {
+        traffic: {
+            executor: 'ramping-vus',
+            exec: 'traffic',
+            stages: [
+                { duration: RAMP_UP, target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+        },
+        memory: {
+            executor: 'constant-vus',
+            exec: 'sampleMemory',
+            vus: 1,
+            startTime: RAMP_UP,
+            duration: DURATION,
+        },
+    },
+    thresholds: {
+        'http_req_failed{scenario:traffic}': ['rate<0.01'],
+        // Listed so the summary shows throughput without the scrapes
+        'http_reqs{scenario:traffic}': ['count>0'],
+    },
+};
+
+export function setup() {
+    return { idle: scrape() };
+}
+
+export function traffic() {
+    const params = { responseType: 'none', tags: { op: 'get' } };
+    check(http.get(`${BASE_URL}/songs/${randomId()}`, params), {
+        'get 200 or 404': (r) => r.status === 200 || r.status === 404,
+    });
+
+    if (__ITER % LOOKUP_EVERY === 0) {
+        const ids = Array.from({ length: 20 }, randomId);
+        check(http.post(`${BASE_URL}/songs/lookup`, JSON.stringify(ids), {
+            headers: { 'Content-Type': 'application/json' },
+            responseType: 'none',
+            tags: { op: 'lookup' },
+        }), { 'lookup 200': (r) => r.status === 200 });
+
+        const artist = encodeURIComponent(`Artist ${Math.floor(Math.random() * ARTISTS)}`);
+        check(http.get(`${BASE_URL}/songs?artist=${artist}&limit=20`, { responseType: 'none', tags: { op: 'search' } }), {
+            'search 200': (r) => r.status === 200,
+        });
+    }
+}
+
+export function sampleMemory(data) {
+    const current = scrape();
+    jvmMemory.add(current.memory);
+    jvmThreads.add(current.threads);
+    memoryPerConnection.add((current.memory - data.idle.memory) / VUS);
+    sleep(5);
+}
+
+function randomId() {
+    return MIN_ID + Math.floor(Math.random() * (MAX_ID - MIN_ID + 1));
+}
+
+function scrape() {
+    const body = http.get(`${BASE_URL}/actuator/prometheus`, { tags: { op: 'scrape' } }).body;
+    return {
+        memory: sum(body, /^jvm_memory_used_bytes\{[^}]*\} (\S+)$/gm)
+            + sum(body, /^jvm_buffer_memory_used_bytes\{[^}]*\} (\S+)$/gm),
+        threads: sum(body, /^jvm_threads_live_threads\{[^}]*\} (\S+)$/gm),
+    };
+}
+
+function sum(body, pattern) {
+    let total = 0;
+    for (const match of body.matchAll(pattern)) {
+        total += parseFloat(match[1]);
+    }
+    return total;
+}
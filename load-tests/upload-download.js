@@ -0,0 +1,83 @@
+// Concurrent upload/download mix against resource-service.
+//
+//   k6 run -e MP3_FILE=./sample.mp3 -e VUS=400 load-tests/upload-download.js
+//
+// Every iteration uploads the sample file once and then downloads a random
+// previously uploaded resource in full and as a 256 KiB range.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MP3 = open(__ENV.MP3_FILE || './sample.mp3', 'b');
+const VUS = parseInt(__ENV.VUS || '200');
+const DURATION = __ENV.DURATION || '2m';
+const UPLOAD_EVERY = parseInt(__ENV.UPLOAD_EVERY || '5');
+
+const failedUploads = new Counter('failed_uploads');
+const failedDownloads = new Counter('failed_downloads');
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '30s',
+        },
+    },
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration{op:upload}': ['p(95)<2000'],
+        'http_req_duration{op:download}': ['p(95)<2000'],
+        'http_req_duration{op:range}': ['p(95)<500'],
+    },
+};
+
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < 20; i++) {
+        ids.push(upload().json('id'));
+    }
+    return { ids };
+}
+
+export default function (data) {
+    let ids = data.ids;
+    if (__ITER % UPLOAD_EVERY === 0) {
+        const res = upload();
+        if (!check(res, { 'upload 200': (r) => r.status === 200 })) {
+            failedUploads.add(1);
+        }
+    }
+
+    const id = ids[Math.floor(Math.random() * ids.length)];
+
+    const full = http.get(`${BASE_URL}/resources/${id}`, {
+        tags: { op: 'download' },
+        responseType: 'none',
+    });
+    if (!check(full, { 'download 200': (r) => r.status === 200 })) {
+        failedDownloads.add(1);
+    }
+
+    const range = http.get(`${BASE_URL}/resources/${id}`, {
+        headers: { Range: 'bytes=0-262143' },
+        tags: { op: 'range' },
+        responseType: 'none',
+    });
+    if (!check(range, { 'range 206': (r) => r.status === 206 })) {
+        failedDownloads.add(1);
+    }
+}
+
+function upload() {
+    return http.post(`${BASE_URL}/resources`, MP3, {
+        headers: { 'Content-Type': 'audio/mpeg' },
+        tags: { op: 'upload' },
+    });
+}
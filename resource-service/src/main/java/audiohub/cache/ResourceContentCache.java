@@ -0,0 +1,341 @@
+package audiohub.cache;
+
+import audiohub.config.ResourceCacheProps;
+import audiohub.exception.BlobStoreException;
+import audiohub.storage.BlobStore;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Tiered cache of whole blobs for downloads. The memory tier holds direct buffers outside
+ * the heap; the optional disk tier receives entries evicted from memory, written by a
+ * background thread. Both are bounded in bytes and keyed by storage key, so resources with
+ * identical content share an entry.
+ * <p>
+ * Eviction uses Caffeine's frequency-based admission, and a blob is only loaded into the
+ * cache on its {@code admit-after-requests}-th download, so one-off downloads stream
+ * straight from the blob store without displacing hot tracks.
+ */
+@Slf4j
+@Component
+public class ResourceContentCache {
+
+    public static final String MEMORY_CACHE_NAME = "resource-content";
+    public static final String DISK_CACHE_NAME = "resource-content-disk";
+
+    private static final Pattern SAFE_KEY_PATTERN = Pattern.compile("[0-9A-Za-z]+");
+    private static final String DISK_FILE_SUFFIX = ".blob";
+    private static final int DOORKEEPER_MAX_KEYS = 100_000;
+    // Each queued spill keeps its evicted buffer alive; evictions beyond this aren't spilled
+    private static final int SPILL_QUEUE_CAPACITY = 8;
+    private static final long SPILL_SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final BlobStore blobStore;
+    private final ResourceCacheProps props;
+    private final Cache<String, AtomicInteger> doorkeeper;
+    private final AsyncCache<String, ByteBuffer> memoryTier;
+    private final Cache<String, DiskEntry> diskTier;
+    // Spills queued per key; invalidate() cancels a key's spill by removing it
+    private final Map<String, Object> pendingSpills = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor spillExecutor;
+
+    public ResourceContentCache(BlobStore blobStore, ResourceCacheProps props, MeterRegistry meterRegistry) {
+        this.blobStore = blobStore;
+        this.props = props;
+        this.doorkeeper = Caffeine.newBuilder()
+                .maximumSize(DOORKEEPER_MAX_KEYS)
+                .expireAfterWrite(props.admissionWindow())
+                .build();
+        this.diskTier = props.enabled() && props.diskTierEnabled() ? createDiskTier(meterRegistry) : null;
+        this.spillExecutor = diskTier == null ? null : new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(SPILL_QUEUE_CAPACITY),
+                Thread.ofPlatform().name("resource-cache-spill").daemon().factory());
+        this.memoryTier = createMemoryTier(meterRegistry);
+    }
+
+    /**
+     * Copies {@code length} bytes starting at {@code offset} of the blob to {@code out}, from
+     * the cache when possible. {@code totalLength} is the size of the whole blob.
+     */
+    public void copyTo(String storageKey, long totalLength, long offset, long length, OutputStream out)
+            throws IOException {
+        ByteBuffer content = props.enabled() && totalLength <= props.maxEntrySize().toBytes()
+                ? lookup(storageKey, totalLength)
+                : null;
+
+        if (content == null) {
+            blobStore.copyTo(storageKey, offset, length, out);
+            return;
+        }
+
+        WritableByteChannel channel = Channels.newChannel(out);
+        ByteBuffer slice = content.slice((int) offset, (int) length);
+        while (slice.hasRemaining()) {
+            channel.write(slice);
+        }
+    }
+
+    /**
+     * Drops the blob from both tiers. Called once the delete has committed, so no resource
+     * references the blob any more. The blob store may still hold it, e.g. a large object
+     * waiting for the reclaimer, so a download that resolved its resource before the delete
+     * can still load it again; nothing requests that entry afterwards and it ages out.
+     */
+    public void invalidate(String storageKey) {
+        if (!props.enabled()) {
+            return;
+        }
+
+        doorkeeper.invalidate(storageKey);
+        // Under the memory tier's lock for the key, which evictions and lookups installing an
+        // entry also take: no lookup can refill memory from the disk copy halfway through, and
+        // a spill queued by an earlier eviction is cancelled before it reaches the disk tier
+        memoryTier.asMap().compute(storageKey, (key, content) -> {
+            if (diskTier != null) {
+                diskTier.asMap().compute(key, (k, entry) -> {
+                    pendingSpills.remove(k);
+                    return null;
+                });
+            }
+            return null;
+        });
+    }
+
+    @PreDestroy
+    void clearDiskTier() throws InterruptedException {
+        if (diskTier != null) {
+            spillExecutor.shutdownNow();
+            spillExecutor.awaitTermination(SPILL_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            diskTier.invalidateAll();
+        }
+    }
+
+    /**
+     * A single lookup per download keeps hit/miss counts exact. On a miss the download that
+     * missed reads the blob from the disk tier or, once admitted, from the blob store, and
+     * concurrent downloads of the same key wait for that read. It happens outside Caffeine's
+     * compute, which only installs the pending entry, so it doesn't hold a lock other keys
+     * may hash to. Returns {@code null} if the blob isn't admitted yet.
+     */
+    private ByteBuffer lookup(String storageKey, long totalLength) {
+        CompletableFuture<ByteBuffer> pending = new CompletableFuture<>();
+        CompletableFuture<ByteBuffer> content = memoryTier.get(storageKey, (key, executor) -> pending);
+        if (content != pending) {
+            // A failed read is reported to the download that made it; the others stream instead
+            return content.exceptionally(e -> null).join();
+        }
+
+        try {
+            ByteBuffer loaded = read(storageKey, totalLength);
+            pending.complete(loaded);
+            return loaded;
+        } catch (Throwable e) {
+            // Also drops the entry, so the next download tries again
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ByteBuffer read(String storageKey, long totalLength) {
+        DiskEntry spilled = diskTier == null ? null : diskTier.getIfPresent(storageKey);
+        if (spilled != null) {
+            ByteBuffer content = readDiskEntry(storageKey, spilled);
+            if (content != null) {
+                return content;
+            }
+        }
+        return admit(storageKey) ? load(storageKey, totalLength) : null;
+    }
+
+    private boolean admit(String storageKey) {
+        if (props.admitAfterRequests() <= 1) {
+            return true;
+        }
+
+        int requests = doorkeeper.get(storageKey, key -> new AtomicInteger()).incrementAndGet();
+        if (requests < props.admitAfterRequests()) {
+            return false;
+        }
+        doorkeeper.invalidate(storageKey);
+        return true;
+    }
+
+    private ByteBuffer load(String storageKey, long totalLength) {
+        ByteBuffer content = ByteBuffer.allocateDirect((int) totalLength);
+        try {
+            blobStore.copyTo(storageKey, 0, totalLength, new ByteBufferOutputStream(content));
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to cache blob " + storageKey, e);
+        }
+        return content.flip();
+    }
+
+    /**
+     * Returns {@code null} if the file is gone, e.g. evicted from the disk tier meanwhile,
+     * so the caller falls back to the blob store.
+     */
+    private ByteBuffer readDiskEntry(String storageKey, DiskEntry entry) {
+        ByteBuffer content = ByteBuffer.allocateDirect(entry.size());
+        try (FileChannel channel = FileChannel.open(entry.file(), StandardOpenOption.READ)) {
+            while (content.hasRemaining()) {
+                if (channel.read(content) < 0) {
+                    throw new IOException("File ended %d bytes early".formatted(content.remaining()));
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Failed to read blob {} from the disk cache: {}", storageKey, e.getMessage());
+            diskTier.invalidate(storageKey);
+            return null;
+        }
+        return content.flip();
+    }
+
+    /**
+     * Runs as part of the eviction, under the key's lock, so it only queues the write.
+     */
+    private void queueSpill(String storageKey, ByteBuffer content) {
+        if (!SAFE_KEY_PATTERN.matcher(storageKey).matches()) {
+            return;
+        }
+
+        Object spill = new Object();
+        pendingSpills.put(storageKey, spill);
+        try {
+            spillExecutor.execute(() -> spill(storageKey, content, spill));
+        } catch (RejectedExecutionException e) {
+            pendingSpills.remove(storageKey, spill);
+            log.debug("Not spilling blob {} to the disk cache, too many spills are pending", storageKey);
+        }
+    }
+
+    /**
+     * The entry is only added if {@link #invalidate} hasn't cancelled the spill meanwhile;
+     * both decide under the disk tier's lock for the key.
+     */
+    private void spill(String storageKey, ByteBuffer content, Object spill) {
+        if (diskTier.asMap().containsKey(storageKey)) {
+            pendingSpills.remove(storageKey, spill);
+            return;
+        }
+
+        Path file = null;
+        try {
+            file = Files.createTempFile(props.diskDirectory(), storageKey + "-", DISK_FILE_SUFFIX);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ByteBuffer source = content.duplicate();
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+            }
+        } catch (IOException e) {
+            pendingSpills.remove(storageKey, spill);
+            log.warn("Failed to spill blob {} to the disk cache: {}", storageKey, e.getMessage());
+            if (file != null) {
+                deleteQuietly(file);
+            }
+            return;
+        }
+
+        DiskEntry spilled = new DiskEntry(file, content.limit());
+        DiskEntry stored = diskTier.asMap().compute(storageKey,
+                (key, existing) -> pendingSpills.remove(key, spill) ? spilled : existing);
+        if (stored != spilled) {
+            deleteQuietly(file);
+        }
+    }
+
+    private AsyncCache<String, ByteBuffer> createMemoryTier(MeterRegistry meterRegistry) {
+        Caffeine<String, ByteBuffer> builder = Caffeine.newBuilder()
+                .maximumWeight(props.memorySize().toBytes())
+                .weigher((String key, ByteBuffer content) -> content.capacity())
+                .recordStats();
+        if (diskTier != null) {
+            builder.evictionListener((String key, ByteBuffer content, RemovalCause cause) -> queueSpill(key, content));
+        }
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, builder.buildAsync(), MEMORY_CACHE_NAME);
+    }
+
+    private Cache<String, DiskEntry> createDiskTier(MeterRegistry meterRegistry) {
+        Path directory = props.diskDirectory();
+        try {
+            Files.createDirectories(directory);
+            // Entries don't survive a restart; remove files left behind by an unclean shutdown
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*" + DISK_FILE_SUFFIX)) {
+                for (Path file : leftovers) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare resource cache directory " + directory, e);
+        }
+
+        Cache<String, DiskEntry> cache = Caffeine.newBuilder()
+                .maximumWeight(props.diskSize().toBytes())
+                .weigher((String key, DiskEntry entry) -> entry.size())
+                .removalListener((String key, DiskEntry entry, RemovalCause cause) -> deleteQuietly(entry.file()))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, DISK_CACHE_NAME);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached blob file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private record DiskEntry(Path file, int size) {
+    }
+
+    private static final class ByteBufferOutputStream extends OutputStream {
+
+        private final ByteBuffer target;
+
+        private ByteBufferOutputStream(ByteBuffer target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) {
+            target.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target.put(b, off, len);
+        }
+    }
+}
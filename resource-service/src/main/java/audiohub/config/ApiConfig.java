@@ -1,24 +1,96 @@
 package audiohub.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.Getter;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+
 @Configuration
 @Getter
 public class ApiConfig {
 
-    @Bean
-    public RestClient songServiceRestClient(SongServiceProps props) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(props.connectTimeout());
-        factory.setReadTimeout(props.readTimeout());
+    private static final String SONG_SERVICE_POOL_NAME = "song-service";
 
+    /**
+     * Calls are observed, so their latency is published as {@code http.client.requests}
+     * tagged with the URI template, status and exception.
+     */
+    @Bean
+    public RestClient songServiceRestClient(SongServiceProps props, ClientHttpRequestFactory songServiceRequestFactory,
+                                            ObservationRegistry observationRegistry) {
         return RestClient.builder()
                 .baseUrl(props.url())
-                .requestFactory(factory)
+                .requestFactory(songServiceRequestFactory)
+                .observationRegistry(observationRegistry)
+                .build();
+    }
+
+    /**
+     * Keeps connections to song-service alive and reuses them, so bursts of outbox deliveries
+     * and deletes don't pay a TCP handshake per call. Pool gauges are published as
+     * {@code httpcomponents.httpclient.pool.*} tagged {@code httpclient=song-service}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "song-service", name = "transport", havingValue = "apache", matchIfMissing = true)
+    public HttpComponentsClientHttpRequestFactory apacheSongServiceRequestFactory(SongServiceProps props,
+                                                                                 MeterRegistry meterRegistry) {
+        SongServiceProps.Pool pool = props.pool();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.maxConnections())
+                .setMaxConnPerRoute(pool.maxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(props.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(props.readTimeout()))
+                        .setValidateAfterInactivity(TimeValue.of(pool.validateAfterInactivity()))
+                        .build())
                 .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, SONG_SERVICE_POOL_NAME)
+                .bindTo(meterRegistry);
+
+        TimeValue keepAlive = TimeValue.of(pool.keepAlive());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(TimeValue.of(pool.idleEviction()))
+                .evictExpiredConnections()
+                .build();
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setConnectionRequestTimeout(pool.acquireTimeout());
+        return factory;
+    }
+
+    /**
+     * With {@code song-service.http2} the client upgrades to h2c and multiplexes calls over a
+     * single connection instead of pooling.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "song-service", name = "transport", havingValue = "jdk")
+    public JdkClientHttpRequestFactory jdkSongServiceRequestFactory(SongServiceProps props) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(props.http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(props.connectTimeout())
+                .build();
+
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(props.readTimeout());
+        return factory;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package audiohub.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "blob-store")
+public record BlobStoreProps(
+
+        @NotNull(message = "Blob store type must not be null")
+        Type type,
+
+        @NotNull(message = "Blob store filesystem root must not be null")
+        Path filesystemRoot,
+
+        @Valid
+        @NotNull(message = "Blob store reclaimer settings must not be null")
+        Reclaimer reclaimer
+) {
+
+    public enum Type {
+        DATABASE,
+        FILESYSTEM
+    }
+
+    /**
+     * Background unlinking of large objects no resource references, used by the
+     * {@code database} store only.
+     */
+    public record Reclaimer(
+
+            boolean enabled,
+
+            @NotNull(message = "Reclaimer interval must not be null")
+            Duration interval,
+
+            @Min(value = 1, message = "Reclaimer batch size must be positive")
+            int batchSize,
+
+            @NotNull(message = "Reclaimer batch pause must not be null")
+            Duration batchPause
+    ) {
+    }
+}
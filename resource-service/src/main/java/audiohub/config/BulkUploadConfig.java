@@ -0,0 +1,32 @@
+package audiohub.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class BulkUploadConfig {
+
+    /**
+     * Spools and parses bulk upload files, one worker per core by default. When the queue is
+     * full the request thread runs the file itself, which throttles the producer. Stays on
+     * platform threads in virtual-thread mode: the work is CPU-bound and the pool size is the limit.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bulkUploadExecutor(BulkUploadProps props) {
+        int workers = props.workers() > 0 ? props.workers() : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("bulk-upload-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(props.queueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Spans of the worker stages belong to the upload request's trace
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+}
@@ -0,0 +1,23 @@
+package audiohub.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "bulk-upload")
+public record BulkUploadProps(
+
+        @Min(value = 0, message = "Bulk upload workers must not be negative")
+        int workers,
+
+        @Min(value = 1, message = "Bulk upload queue capacity must be positive")
+        int queueCapacity,
+
+        @Min(value = 1, message = "Bulk upload max files must be positive")
+        int maxFiles,
+
+        @Min(value = 1, message = "Bulk upload persist batch size must be positive")
+        int persistBatchSize
+) {
+}
@@ -0,0 +1,40 @@
+package audiohub.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "resource-cache")
+public record ResourceCacheProps(
+
+        boolean enabled,
+
+        @NotNull(message = "Resource cache memory size must not be null")
+        DataSize memorySize,
+
+        @NotNull(message = "Resource cache max entry size must not be null")
+        DataSize maxEntrySize,
+
+        @Min(value = 1, message = "Resource cache admit-after-requests must be positive")
+        int admitAfterRequests,
+
+        @NotNull(message = "Resource cache admission window must not be null")
+        Duration admissionWindow,
+
+        @NotNull(message = "Resource cache disk size must not be null")
+        DataSize diskSize,
+
+        @NotNull(message = "Resource cache disk directory must not be null")
+        Path diskDirectory
+) {
+
+    public boolean diskTierEnabled() {
+        return diskSize.toBytes() > 0;
+    }
+}
@@ -0,0 +1,32 @@
+package audiohub.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "song-metadata-outbox")
+public record SongMetadataOutboxProps(
+
+        @Min(value = 1, message = "Outbox batch size must be positive")
+        int batchSize,
+
+        @NotNull(message = "Outbox lease must not be null")
+        Duration lease,
+
+        @NotNull(message = "Outbox initial backoff must not be null")
+        Duration initialBackoff,
+
+        @NotNull(message = "Outbox max backoff must not be null")
+        Duration maxBackoff,
+
+        @Min(value = 1, message = "Outbox max attempts must be positive")
+        int maxAttempts,
+
+        // Delete resources whose metadata song-service rejects, instead of only parking their entries
+        boolean deleteRejected
+) {
+}
@@ -1,5 +1,10 @@
 package audiohub.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -18,6 +23,149 @@ public record SongServiceProps(
         Duration connectTimeout,
 
         @NotNull(message = "Read timeout must not be null")
-        Duration readTimeout
+        Duration readTimeout,
+
+        @NotNull(message = "Song service transport must not be null")
+        Transport transport,
+
+        // HTTP/2 over cleartext (h2c upgrade), supported by the JDK transport only
+        boolean http2,
+
+        @Valid
+        @NotNull(message = "Song service connection pool settings must not be null")
+        Pool pool,
+
+        @Valid
+        @NotNull(message = "Song service resilience settings must not be null")
+        Resilience resilience
 ) {
-}
\ No newline at end of file
+
+    public enum Transport {
+        /**
+         * Apache HttpClient 5 with a tunable, metered connection pool.
+         */
+        APACHE,
+        /**
+         * JDK HttpClient; pooling is internal to the JDK and not configurable here.
+         */
+        JDK
+    }
+
+    public record Pool(
+
+            @Min(value = 1, message = "Max connections must be positive")
+            int maxConnections,
+
+            @Min(value = 1, message = "Max connections per route must be positive")
+            int maxConnectionsPerRoute,
+
+            @NotNull(message = "Connection acquire timeout must not be null")
+            Duration acquireTimeout,
+
+            @NotNull(message = "Keep-alive must not be null")
+            Duration keepAlive,
+
+            @NotNull(message = "Idle eviction must not be null")
+            Duration idleEviction,
+
+            @NotNull(message = "Validate-after-inactivity must not be null")
+            Duration validateAfterInactivity
+    ) {
+    }
+
+    /**
+     * Calls go through retry, then the circuit breaker, then the operation's bulkhead.
+     */
+    public record Resilience(
+
+            @Valid
+            @NotNull(message = "Create bulkhead settings must not be null")
+            Bulkhead createBulkhead,
+
+            @Valid
+            @NotNull(message = "Delete bulkhead settings must not be null")
+            Bulkhead deleteBulkhead,
+
+            @Valid
+            @NotNull(message = "Circuit breaker settings must not be null")
+            CircuitBreaker circuitBreaker,
+
+            @Valid
+            @NotNull(message = "Retry settings must not be null")
+            Retry retry,
+
+            @Valid
+            @NotNull(message = "Hedging settings must not be null")
+            Hedging deleteHedging
+    ) {
+    }
+
+    public record Bulkhead(
+
+            @Min(value = 1, message = "Bulkhead max concurrent calls must be positive")
+            int maxConcurrentCalls,
+
+            // How long a call may wait for a free slot before it is rejected; 0 rejects right away
+            @NotNull(message = "Bulkhead max wait must not be null")
+            Duration maxWait
+    ) {
+    }
+
+    public record CircuitBreaker(
+
+            @Min(value = 1, message = "Failure rate threshold must be between 1 and 100")
+            @Max(value = 100, message = "Failure rate threshold must be between 1 and 100")
+            int failureRateThreshold,
+
+            // Share of slow calls that opens the circuit, in percent
+            @Min(value = 1, message = "Slow call rate threshold must be between 1 and 100")
+            @Max(value = 100, message = "Slow call rate threshold must be between 1 and 100")
+            int slowCallRateThreshold,
+
+            // Calls slower than this count as failures too
+            @NotNull(message = "Slow call threshold must not be null")
+            Duration slowCallThreshold,
+
+            @Min(value = 1, message = "Sliding window size must be positive")
+            int slidingWindowSize,
+
+            @Min(value = 1, message = "Minimum number of calls must be positive")
+            int minimumNumberOfCalls,
+
+            @NotNull(message = "Open state duration must not be null")
+            Duration openDuration,
+
+            @Min(value = 1, message = "Half-open calls must be positive")
+            int halfOpenCalls
+    ) {
+    }
+
+    public record Retry(
+
+            // Including the first call; 1 disables retries
+            @Min(value = 1, message = "Retry max attempts must be positive")
+            int maxAttempts,
+
+            @NotNull(message = "Retry initial backoff must not be null")
+            Duration initialBackoff,
+
+            @NotNull(message = "Retry max backoff must not be null")
+            Duration maxBackoff,
+
+            // Each backoff is randomized by up to this fraction either way
+            @DecimalMin(value = "0.0", message = "Retry jitter must be at least 0 and less than 1")
+            @DecimalMax(value = "1.0", inclusive = false, message = "Retry jitter must be at least 0 and less than 1")
+            double jitter
+    ) {
+    }
+
+    public record Hedging(
+
+            boolean enabled,
+
+            // A second request is sent if the first hasn't answered within this delay
+            @NotNull(message = "Hedging delay must not be null")
+            Duration delay
+    ) {
+    }
+}
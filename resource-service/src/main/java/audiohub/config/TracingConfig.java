@@ -0,0 +1,34 @@
+package audiohub.config;
+
+import io.micrometer.observation.ObservationPredicate;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Spans go to the OTLP endpoint in {@code management.otlp.tracing.endpoint} when it is set,
+ * and with the {@code trace-file} profile also to {@code tracing.file} (see logback-spring.xml).
+ */
+@Configuration
+public class TracingConfig {
+
+    private static final String SCHEDULED_TASK_OBSERVATION = "tasks.scheduled.execution";
+
+    /**
+     * The outbox dispatcher runs every few hundred milliseconds and the large-object reclaimer
+     * every minute; a trace per idle run would bury the request traces. Deliveries get their
+     * own spans.
+     */
+    @Bean
+    public ObservationPredicate skipScheduledTaskObservations() {
+        return (name, context) -> !SCHEDULED_TASK_OBSERVATION.equals(name);
+    }
+
+    @Bean
+    @Profile("trace-file")
+    public SpanExporter fileSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,31 @@
+package audiohub.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "upload-admission")
+public record UploadAdmissionProps(
+
+        @NotNull(message = "Upload admission max bytes must not be null")
+        DataSize maxBytes,
+
+        // 0 = one extraction per CPU core
+        @Min(value = 0, message = "Upload admission max extractions must not be negative")
+        int maxExtractions,
+
+        @Min(value = 0, message = "Upload admission queue capacity must not be negative")
+        int queueCapacity,
+
+        @NotNull(message = "Upload admission queue timeout must not be null")
+        Duration queueTimeout,
+
+        @NotNull(message = "Upload admission retry-after must not be null")
+        Duration retryAfter
+) {
+}
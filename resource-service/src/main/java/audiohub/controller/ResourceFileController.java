@@ -1,41 +1,124 @@
 package audiohub.controller;
 
+import audiohub.dto.response.BulkDeleteResponse;
+import audiohub.dto.response.BulkUploadResponse;
 import audiohub.dto.response.DeleteResourcesResponse;
 import audiohub.dto.response.UploadResourceResponse;
+import audiohub.service.BulkResourceDeleteService;
+import audiohub.service.BulkResourceUploadService;
 import audiohub.service.Mp3ResourceService;
+import audiohub.service.ResourceRange;
+import audiohub.service.StoredResource;
+import audiohub.service.UploadAdmission;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/resources")
 @RequiredArgsConstructor
 public class ResourceFileController {
 
+    private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+    // Resource IDs are never reused and content never changes after upload
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+
     private final Mp3ResourceService resourceService;
+    private final BulkResourceUploadService bulkUploadService;
+    private final BulkResourceDeleteService bulkDeleteService;
+    private final UploadAdmission uploadAdmission;
 
+    /**
+     * Admitted before the body is read: when the upload budget is used up the request waits in
+     * a bounded queue or is rejected with {@code 429}/{@code 503} and {@code Retry-After}.
+     */
     @PostMapping(consumes = "audio/mpeg")
-    public ResponseEntity<UploadResourceResponse> upload(@RequestBody byte[] audioData) {
-        UploadResourceResponse response = resourceService.store(audioData);
+    public ResponseEntity<UploadResourceResponse> upload(
+            InputStream audioStream,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength
+    ) {
+        try (UploadAdmission.Permit ignored = uploadAdmission.admit(contentLength)) {
+            UploadResourceResponse response = resourceService.store(audioStream);
 
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        }
     }
 
+    /**
+     * Admitted like single uploads, by the whole request's {@code Content-Length}. Multipart
+     * resolution is lazy, so the parts are only read once the request is admitted.
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkUploadResponse> uploadBatch(
+            MultipartHttpServletRequest request,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength
+    ) {
+        try (UploadAdmission.Permit ignored = uploadAdmission.admitBulk(contentLength)) {
+            BulkUploadResponse response = bulkUploadService.storeAll(request.getFiles("files"));
+
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    /**
+     * Conditional requests are answered from the resource row alone: the blob is only
+     * read once {@code If-None-Match} and {@code If-Modified-Since} say the client needs it.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> download(@PathVariable String id) {
-        byte[] audioData = resourceService.getResource(id);
+    public ResponseEntity<StreamingResponseBody> download(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            ServletWebRequest request
+    ) {
+        StoredResource resource = resourceService.findStoredResource(id);
+
+        // Also sets ETag and Last-Modified on the response, and its status to 304 or 412 when it returns true
+        if (request.checkNotModified(resource.eTag(), resource.uploadTime().toEpochMilli())) {
+            return ResponseEntity.status(request.getResponse().getStatus())
+                    .cacheControl(IMMUTABLE)
+                    .build();
+        }
+
+        ResourceRange range = resourceService.resolveRange(resource, rangeHeader);
+        StreamingResponseBody body = out -> resourceService.writeResource(range, out);
+
+        if (range.isPartial()) {
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .contentType(AUDIO_MPEG)
+                    .contentLength(range.length())
+                    .cacheControl(IMMUTABLE)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, range.contentRange())
+                    .body(body);
+        }
 
         return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType("audio/mpeg"))
-                .body(audioData);
+                .contentType(AUDIO_MPEG)
+                .contentLength(range.length())
+                .cacheControl(IMMUTABLE)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(body);
     }
 
     @DeleteMapping
@@ -44,4 +127,15 @@ public class ResourceFileController {
 
         return ResponseEntity.ok(deleteResourcesResponse);
     }
+
+    /**
+     * Deletes up to {@code bulk-delete.max-ids} resources, with IDs separated by commas or
+     * whitespace (e.g. one per line) in the body.
+     */
+    @PostMapping(path = "/bulk-delete", consumes = {MediaType.TEXT_PLAIN_VALUE, "text/csv"})
+    public ResponseEntity<BulkDeleteResponse> deleteBulk(Reader idList) throws IOException {
+        BulkDeleteResponse response = bulkDeleteService.deleteAll(idList);
+
+        return ResponseEntity.ok(response);
+    }
 }
\ No newline at end of file
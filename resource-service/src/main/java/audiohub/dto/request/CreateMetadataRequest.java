@@ -0,0 +1,9 @@
+package audiohub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+public record CreateMetadataRequest(
+        long id,
+        @JsonUnwrapped SongMetadataDto metadata
+) {
+}
@@ -0,0 +1,9 @@
+package audiohub.dto.response;
+
+import java.util.List;
+
+/**
+ * One result per uploaded file, in request order.
+ */
+public record BulkUploadResponse(List<BulkUploadResult> results) {
+}
@@ -0,0 +1,22 @@
+package audiohub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkUploadResult(
+        String fileName,
+        Long id,
+        String errorMessage,
+        Map<String, String> details
+) {
+
+    public static BulkUploadResult stored(String fileName, Long id) {
+        return new BulkUploadResult(fileName, id, null, null);
+    }
+
+    public static BulkUploadResult failed(String fileName, String errorMessage, Map<String, String> details) {
+        return new BulkUploadResult(fileName, null, errorMessage, details);
+    }
+}
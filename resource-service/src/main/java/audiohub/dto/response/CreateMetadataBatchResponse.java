@@ -0,0 +1,9 @@
+package audiohub.dto.response;
+
+import java.util.List;
+
+/**
+ * Response of song-service {@code POST /songs/batch}: one result per request, in request order.
+ */
+public record CreateMetadataBatchResponse(List<CreateMetadataResult> results) {
+}
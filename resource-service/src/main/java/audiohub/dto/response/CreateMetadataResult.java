@@ -0,0 +1,16 @@
+package audiohub.dto.response;
+
+import java.util.Map;
+
+public record CreateMetadataResult(
+        Long id,
+        Status status,
+        Map<String, String> details
+) {
+
+    public enum Status {
+        CREATED,
+        ALREADY_EXISTS,
+        INVALID
+    }
+}
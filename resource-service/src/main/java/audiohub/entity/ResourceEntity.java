@@ -5,7 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -26,12 +26,18 @@ import java.time.LocalDateTime;
 public class ResourceEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resources_id_seq")
+    @SequenceGenerator(name = "resources_id_seq", sequenceName = "resources_id_seq", allocationSize = 50)
     private Long id;
 
-    @Lob
     @Column(nullable = false)
-    private byte[] data;
+    private String storageKey;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false, length = 64)
+    private String checksum;
 
     @CreationTimestamp
     @Column(nullable = false)
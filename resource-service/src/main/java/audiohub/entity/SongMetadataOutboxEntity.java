@@ -0,0 +1,94 @@
+package audiohub.entity;
+
+import audiohub.dto.request.SongMetadataDto;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Song metadata waiting to be delivered to song-service. Written in the same transaction
+ * as the resource; delivery state is maintained by {@code SongMetadataOutboxRepository}.
+ */
+@Entity
+@Table(name = "song_metadata_outbox")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SongMetadataOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "song_metadata_outbox_id_seq")
+    @SequenceGenerator(name = "song_metadata_outbox_id_seq", sequenceName = "song_metadata_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long resourceId;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 100)
+    private String artist;
+
+    @Column(nullable = false, length = 100)
+    private String album;
+
+    @Column(nullable = false, length = 4)
+    private String year;
+
+    @Column(nullable = false, length = 5)
+    private String duration;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer attempts;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(insertable = false, updatable = false)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // W3C traceparent of the upload, so its delivery can be linked to it
+    @Column(length = 55)
+    private String traceParent;
+
+    public static SongMetadataOutboxEntity of(Long resourceId, SongMetadataDto metadata, String traceParent) {
+        return SongMetadataOutboxEntity.builder()
+                .resourceId(resourceId)
+                .traceParent(traceParent)
+                .name(metadata.getName())
+                .artist(metadata.getArtist())
+                .album(metadata.getAlbum())
+                .year(metadata.getYear())
+                .duration(metadata.getDuration())
+                .build();
+    }
+
+    public SongMetadataDto toMetadata() {
+        return SongMetadataDto.builder()
+                .name(name)
+                .artist(artist)
+                .album(album)
+                .year(year)
+                .duration(duration)
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package audiohub.exception;
+
+public class BlobStoreException extends RuntimeException {
+
+    public BlobStoreException(String message) {
+        super(message);
+    }
+
+    public BlobStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
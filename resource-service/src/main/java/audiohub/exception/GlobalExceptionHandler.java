@@ -1,7 +1,10 @@
 package audiohub.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolation;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,24 +15,60 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private static final String ERRORS_METRIC = "api.errors";
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiError> handleResourceNotFound(ResourceNotFoundException ex) {
         log.info("Resource not found: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.NOT_FOUND,
                 ex.getMessage()
         );
     }
 
+    @ExceptionHandler(RangeNotSatisfiableException.class)
+    public ResponseEntity<ApiError> handleRangeNotSatisfiable(RangeNotSatisfiableException ex) {
+        log.info("Range not satisfiable: {}", ex.getMessage());
+
+        HttpStatus status = HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
+        countError(ex, status);
+        return ResponseEntity
+                .status(status)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + ex.getTotalLength())
+                .body(new ApiError(ex.getMessage(), String.valueOf(status.value())));
+    }
+
+    @ExceptionHandler(UploadRejectedException.class)
+    public ResponseEntity<ApiError> handleUploadRejected(UploadRejectedException ex) {
+        log.info("Upload rejected: {}", ex.getMessage());
+
+        HttpStatus status = ex.getReason() == UploadRejectedException.Reason.QUEUE_FULL
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        long retryAfterSeconds = Math.max(1, ex.getRetryAfter().toSeconds());
+        countError(ex, status);
+        return ResponseEntity
+                .status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ApiError(ex.getMessage(), String.valueOf(status.value())));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidationErrors(MethodArgumentNotValidException ex) {
         log.warn("Validation error: {}", ex.getMessage());
@@ -51,6 +90,7 @@ public class GlobalExceptionHandler {
         }
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 "Validation error",
                 details
@@ -62,11 +102,45 @@ public class GlobalExceptionHandler {
         log.warn("Invalid MP3 file: {}", ex.getMessage(), ex);
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 ex.getMessage()
         );
     }
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ApiError> handleMaxUploadSizeExceeded(MaxUploadSizeExceededException ex) {
+        log.warn("Upload too large: {}", ex.getMessage());
+
+        return buildErrorResponse(
+                ex,
+                HttpStatus.PAYLOAD_TOO_LARGE,
+                "Upload exceeds the maximum allowed size"
+        );
+    }
+
+    @ExceptionHandler(MultipartException.class)
+    public ResponseEntity<ApiError> handleMultipart(MultipartException ex) {
+        log.warn("Invalid multipart request: {}", ex.getMessage());
+
+        return buildErrorResponse(
+                ex,
+                HttpStatus.BAD_REQUEST,
+                "Invalid multipart request"
+        );
+    }
+
+    @ExceptionHandler(MissingServletRequestPartException.class)
+    public ResponseEntity<ApiError> handleMissingRequestPart(MissingServletRequestPartException ex) {
+        log.warn("Missing request part: {}", ex.getMessage());
+
+        return buildErrorResponse(
+                ex,
+                HttpStatus.BAD_REQUEST,
+                "Required part '%s' is missing".formatted(ex.getRequestPartName())
+        );
+    }
+
     @ExceptionHandler(InvalidSongMetadataException.class)
     public ResponseEntity<ApiError> handleInvalidSongMetadata(InvalidSongMetadataException ex) {
         log.warn("Song metadata validation error: {}", ex.getMessage());
@@ -78,6 +152,7 @@ public class GlobalExceptionHandler {
         }
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 ex.getMessage(),
                 details
@@ -97,7 +172,7 @@ public class GlobalExceptionHandler {
                 paramName
         );
 
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, message);
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, message);
     }
 
     @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
@@ -110,6 +185,7 @@ public class GlobalExceptionHandler {
         String message = "Invalid file format: %s. Only MP3 files are allowed".formatted(ct);
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 message
         );
@@ -121,6 +197,7 @@ public class GlobalExceptionHandler {
         log.warn("Invalid request body: {}", msg);
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 "Invalid request body"
         );
@@ -131,6 +208,7 @@ public class GlobalExceptionHandler {
         log.warn("Invalid resource ID: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 ex.getMessage()
         );
@@ -141,40 +219,82 @@ public class GlobalExceptionHandler {
         log.warn("Invalid CSV: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 ex.getMessage()
         );
     }
 
+    @ExceptionHandler(SongServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleSongServiceUnavailable(SongServiceUnavailableException ex) {
+        log.warn("Song Service unavailable: {}", ex.getMessage());
+
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        countError(ex, status);
+        return ResponseEntity
+                .status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(new ApiError("Song Service is temporarily unavailable", String.valueOf(status.value())));
+    }
+
     @ExceptionHandler(SongServiceException.class)
     public ResponseEntity<ApiError> handleSongServiceException(SongServiceException ex) {
         log.error("Song Service error: {}", ex.getMessage(), ex);
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 "Failed to communicate with Song Service"
         );
     }
 
+    @ExceptionHandler(BlobStoreException.class)
+    public ResponseEntity<ApiError> handleBlobStoreException(BlobStoreException ex) {
+        log.error("Blob store error: {}", ex.getMessage(), ex);
+
+        return buildErrorResponse(
+                ex,
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                "Failed to access resource storage"
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGenericException(Exception ex) {
         log.error("Unexpected error occurred", ex);
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 "An unexpected error occurred"
         );
     }
 
-    private ResponseEntity<ApiError> buildErrorResponse(HttpStatus status, String message) {
+    /**
+     * Counts handled errors by exception type and status; unlike {@code http.server.requests},
+     * this tells apart errors that map to the same status.
+     */
+    private void countError(Exception ex, HttpStatus status) {
+        meterRegistry.counter(ERRORS_METRIC,
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())
+        ).increment();
+    }
+
+    private ResponseEntity<ApiError> buildErrorResponse(Exception ex, HttpStatus status, String message) {
+        countError(ex, status);
+
         return ResponseEntity
                 .status(status)
                 .body(new ApiError(message, String.valueOf(status.value())));
     }
 
-    private ResponseEntity<ApiError> buildErrorResponse(HttpStatus status,
+    private ResponseEntity<ApiError> buildErrorResponse(Exception ex,
+                                                        HttpStatus status,
                                                         String message,
                                                         Map<String, String> details) {
+        countError(ex, status);
+
         return ResponseEntity
                 .status(status)
                 .body(new ApiError(message, details, String.valueOf(status.value())));
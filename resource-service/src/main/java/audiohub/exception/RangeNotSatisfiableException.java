@@ -0,0 +1,14 @@
+package audiohub.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RangeNotSatisfiableException extends RuntimeException {
+
+    private final long totalLength;
+
+    public RangeNotSatisfiableException(String message, long totalLength) {
+        super(message);
+        this.totalLength = totalLength;
+    }
+}
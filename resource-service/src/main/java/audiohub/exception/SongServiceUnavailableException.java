@@ -0,0 +1,20 @@
+package audiohub.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * A call to song-service was not attempted: its circuit breaker is open or too many calls
+ * are already in flight.
+ */
+@Getter
+public class SongServiceUnavailableException extends SongServiceException {
+
+    private final Duration retryAfter;
+
+    public SongServiceUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,29 @@
+package audiohub.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class UploadRejectedException extends RuntimeException {
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public UploadRejectedException(String message, Reason reason, Duration retryAfter) {
+        super(message);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public enum Reason {
+        /**
+         * The admission queue was already full; rejected without waiting.
+         */
+        QUEUE_FULL,
+        /**
+         * Waited in the admission queue for longer than allowed.
+         */
+        QUEUE_TIMEOUT
+    }
+}
@@ -0,0 +1,162 @@
+package audiohub.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Timings and sizes of uploads and downloads, published with percentile histograms so
+ * latencies can be aggregated across instances. Upload stages are observed separately, as
+ * a timer and a span each, so a slow upload shows whether spooling, extraction, the blob
+ * write or the commit took long. The write transaction is also timed as a whole, since that
+ * is how long an upload holds a database connection.
+ */
+@Component
+public class ResourceMetrics {
+
+    private static final String UPLOAD_STAGE_OBSERVATION = "resource.upload.stage";
+    private static final long MIN_EXPECTED_SIZE = 1024;
+    private static final long MAX_EXPECTED_SIZE = 64L * 1024 * 1024;
+
+    private final DistributionSummary uploadSize;
+    private final Map<Boolean, Timer> uploadTransactions;
+    private final Counter rejectedUploads;
+    private final Map<Boolean, Timer> downloads;
+    private final Map<Boolean, DistributionSummary> downloadSizes;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    public ResourceMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.uploadSize = sizeSummary("resource.upload.size", "Size of uploaded MP3 files")
+                .register(meterRegistry);
+        this.uploadTransactions = Map.of(
+                true, uploadTransactionTimer(true),
+                false, uploadTransactionTimer(false)
+        );
+        this.rejectedUploads = Counter.builder("resource.upload.rejected")
+                .description("Resources deleted because song-service rejected their metadata")
+                .register(meterRegistry);
+        this.downloads = Map.of(
+                false, downloadTimer(false),
+                true, downloadTimer(true)
+        );
+        this.downloadSizes = Map.of(
+                false, downloadSize(false),
+                true, downloadSize(true)
+        );
+    }
+
+    public <T> T recordUploadStage(UploadStage stage, Supplier<T> work) {
+        return uploadStage(stage).observe(work);
+    }
+
+    /**
+     * For stages that don't run as one block; the caller stops the returned observation.
+     */
+    public Observation startUploadStage(UploadStage stage) {
+        return uploadStage(stage).start();
+    }
+
+    public Timer.Sample startUploadTransaction() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordUploadTransaction(Timer.Sample sample, boolean committed) {
+        sample.stop(uploadTransactions.get(committed));
+    }
+
+    public void recordRejectedUploads(int count) {
+        rejectedUploads.increment(count);
+    }
+
+    public Timer.Sample startDownload() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordUploadSize(long bytes) {
+        uploadSize.record(bytes);
+    }
+
+    /**
+     * Records a download once its body is written; {@code bytes} is the length actually sent.
+     */
+    public void recordDownload(Timer.Sample sample, boolean partial, long bytes) {
+        sample.stop(downloads.get(partial));
+        downloadSizes.get(partial).record(bytes);
+    }
+
+    private Observation uploadStage(UploadStage stage) {
+        return Observation.createNotStarted(UPLOAD_STAGE_OBSERVATION, observationRegistry)
+                .contextualName("upload " + stage.tagValue)
+                .lowCardinalityKeyValue("stage", stage.tagValue);
+    }
+
+    private Timer uploadTransactionTimer(boolean committed) {
+        return Timer.builder("resource.upload.transaction")
+                .description("Time the write transaction of an upload holds its database connection")
+                .tag("outcome", committed ? "committed" : "rolled-back")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer downloadTimer(boolean partial) {
+        return Timer.builder("resource.download")
+                .description("Time to write a resource body, from the cache or the blob store")
+                .tag("range", rangeTag(partial))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary downloadSize(boolean partial) {
+        return sizeSummary("resource.download.size", "Bytes sent per download")
+                .tag("range", rangeTag(partial))
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary.Builder sizeSummary(String name, String description) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue((double) MIN_EXPECTED_SIZE)
+                .maximumExpectedValue((double) MAX_EXPECTED_SIZE);
+    }
+
+    private static String rangeTag(boolean partial) {
+        return partial ? "partial" : "full";
+    }
+
+    public enum UploadStage {
+        /**
+         * Streaming the body to a temporary file, enforcing the size limit and hashing it.
+         */
+        SPOOL("spool"),
+        /**
+         * Reading and validating the song metadata.
+         */
+        EXTRACT("extract"),
+        /**
+         * Writing new content to the blob store; skipped for content that is already stored.
+         */
+        BLOB_WRITE("blob-write"),
+        /**
+         * Flushing the resource and outbox rows and committing.
+         */
+        COMMIT("commit");
+
+        private final String tagValue;
+
+        UploadStage(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+}
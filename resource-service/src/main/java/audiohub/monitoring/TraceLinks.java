@@ -0,0 +1,80 @@
+package audiohub.monitoring;
+
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Connects work that runs after the request that caused it, such as outbox deliveries, to
+ * that request's trace. The request stores its W3C {@code traceparent}; the later span links
+ * to it rather than becoming its child, since one delivery serves many uploads.
+ */
+@Component
+@RequiredArgsConstructor
+public class TraceLinks {
+
+    private static final String VERSION = "00";
+    private static final String SAMPLED = "01";
+
+    private final Tracer tracer;
+
+    /**
+     * Returns the {@code traceparent} of the current span, or {@code null} if there is no
+     * sampled span to link to.
+     */
+    public String currentTraceParent() {
+        Span span = tracer.currentSpan();
+        if (span == null || !Boolean.TRUE.equals(span.context().sampled())) {
+            return null;
+        }
+
+        TraceContext context = span.context();
+        return String.join("-", VERSION, context.traceId(), context.spanId(), SAMPLED);
+    }
+
+    /**
+     * Runs {@code work} in a new root span linked to each distinct {@code traceparent}; calls
+     * made from {@code work} propagate this span.
+     */
+    public <T> T inLinkedSpan(String name, Collection<String> traceParents, Supplier<T> work) {
+        Span.Builder builder = tracer.spanBuilder()
+                .name(name)
+                .setNoParent();
+        traceParents.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(this::parse)
+                .filter(Objects::nonNull)
+                .forEach(context -> builder.addLink(new Link(context)));
+
+        Span span = builder.start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return work.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private TraceContext parse(String traceParent) {
+        String[] parts = traceParent.split("-");
+        if (parts.length != 4) {
+            return null;
+        }
+
+        return tracer.traceContextBuilder()
+                .traceId(parts[1])
+                .spanId(parts[2])
+                .sampled(SAMPLED.equals(parts[3]))
+                .build();
+    }
+}
@@ -7,12 +7,99 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Set;
 
 public interface ResourceRepository extends JpaRepository<ResourceEntity, Long> {
 
     @Modifying
     @Transactional
-    @Query(value = "DELETE FROM resources WHERE id IN (:ids) RETURNING id", nativeQuery = true)
-    Set<Long> deleteAndReturnIds(@Param("ids") Set<Long> ids);
+    @Query(value = """
+            DELETE FROM resources WHERE id = ANY(:ids)
+            RETURNING id, storage_key AS "storageKey", checksum
+            """, nativeQuery = true)
+    List<DeletedResource> deleteAndReturn(@Param("ids") Long[] ids);
+
+    @Query(value = """
+            SELECT DISTINCT ON (checksum) checksum, storage_key AS "storageKey"
+            FROM resources
+            WHERE checksum IN (:checksums)
+            """, nativeQuery = true)
+    List<StoredContent> findStoredContent(@Param("checksums") Set<String> checksums);
+
+    @Query(value = "SELECT DISTINCT storage_key FROM resources WHERE storage_key = ANY(:keys)", nativeQuery = true)
+    Set<String> findReferencedStorageKeys(@Param("keys") String[] storageKeys);
+
+    /**
+     * Serializes uploads and deletes of the same content until the end of the transaction,
+     * so a shared blob is never freed while another resource starts referencing it. Locks
+     * are taken in key order, which Postgres follows for volatile functions under ORDER BY,
+     * so concurrent callers can't deadlock.
+     */
+    @Query(value = """
+            SELECT count(*)
+            FROM (SELECT pg_advisory_xact_lock(key) FROM unnest(:keys) AS key ORDER BY key) locked
+            """, nativeQuery = true)
+    long lockContents(@Param("keys") Long[] lockKeys);
+
+    /**
+     * The {@link #lockContents} key of a SHA-256 content checksum: its first 64 bits.
+     */
+    static Long lockKey(String checksum) {
+        return Long.parseUnsignedLong(checksum.substring(0, 16), 16);
+    }
+
+    /**
+     * Takes up to {@code limit} large objects that deletes released and unlinks those that
+     * still exist and that no resource references. Returns every object taken, with its size
+     * if it was unlinked and {@code null} otherwise. Objects the blob store didn't release,
+     * such as ones from rows not migrated yet or from other applications, are never touched.
+     */
+    @Transactional
+    @Query(value = """
+            WITH released AS (
+                DELETE FROM released_large_objects
+                WHERE oid IN (SELECT oid
+                              FROM released_large_objects
+                              ORDER BY oid
+                              LIMIT :limit
+                              FOR UPDATE SKIP LOCKED)
+                RETURNING oid
+            ), checked AS (
+                SELECT r.oid,
+                       EXISTS (SELECT 1 FROM pg_largeobject_metadata lo WHERE lo.oid = CAST(r.oid AS oid))
+                           AND NOT EXISTS (SELECT 1 FROM resources res WHERE res.storage_key = CAST(r.oid AS text))
+                           AS orphaned
+                FROM released r
+            ), sized AS (
+                SELECT oid, orphaned,
+                       CASE WHEN orphaned THEN lo_lseek64(lo_open(CAST(oid AS oid), 262144), 0, 2) END AS size
+                FROM checked
+            )
+            SELECT oid, size, CASE WHEN orphaned THEN lo_unlink(CAST(oid AS oid)) END AS unlinked FROM sized
+            """, nativeQuery = true)
+    List<ReclaimedLargeObject> unlinkReleasedLargeObjects(@Param("limit") int limit);
+
+    interface DeletedResource {
+
+        Long getId();
+
+        String getStorageKey();
+
+        String getChecksum();
+    }
+
+    interface StoredContent {
+
+        String getChecksum();
+
+        String getStorageKey();
+    }
+
+    interface ReclaimedLargeObject {
+
+        Long getOid();
+
+        Long getSize();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package audiohub.repository;
+
+import audiohub.entity.SongMetadataOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+public interface SongMetadataOutboxRepository extends JpaRepository<SongMetadataOutboxEntity, Long> {
+
+    /**
+     * Leases up to {@code batchSize} due entries by pushing their next attempt past the lease
+     * and counting the attempt. SKIP LOCKED lets several instances claim disjoint batches, and an
+     * entry whose dispatcher died becomes due again once the lease runs out.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE song_metadata_outbox
+            SET attempts = attempts + 1,
+                next_attempt_at = Now() + :leaseMillis * INTERVAL '1 millisecond'
+            WHERE id IN (SELECT id
+                         FROM song_metadata_outbox
+                         WHERE next_attempt_at <= Now()
+                         ORDER BY next_attempt_at, id
+                         LIMIT :batchSize
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<SongMetadataOutboxEntity> claimBatch(@Param("batchSize") int batchSize,
+                                              @Param("leaseMillis") long leaseMillis);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE song_metadata_outbox
+            SET next_attempt_at = Now() + :delayMillis * INTERVAL '1 millisecond',
+                last_error = :error
+            WHERE id = :id
+            """, nativeQuery = true)
+    int reschedule(@Param("id") Long id, @Param("delayMillis") long delayMillis, @Param("error") String error);
+
+    /**
+     * Keeps the entry for inspection but takes it out of dispatching.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE song_metadata_outbox
+            SET next_attempt_at = NULL,
+                last_error = :error
+            WHERE id = :id
+            """, nativeQuery = true)
+    int park(@Param("id") Long id, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM song_metadata_outbox WHERE id IN (:ids) RETURNING resource_id", nativeQuery = true)
+    Set<Long> deleteEntries(@Param("ids") Set<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM song_metadata_outbox WHERE resource_id = ANY(:resourceIds)", nativeQuery = true)
+    int deleteByResourceIds(@Param("resourceIds") Long[] resourceIds);
+}
@@ -2,7 +2,9 @@ package audiohub.service;
 
 import audiohub.dto.request.SongMetadataDto;
 import audiohub.exception.InvalidMp3Exception;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.io.TikaInputStream;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.ParseContext;
 import org.apache.tika.parser.mp3.Mp3Parser;
@@ -10,19 +12,40 @@ import org.apache.tika.sax.BodyContentHandler;
 import org.springframework.stereotype.Service;
 import org.xml.sax.ContentHandler;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class AudioMetadataExtractor {
 
-    public SongMetadataDto extract(byte[] audioData) {
-        if (audioData == null || audioData.length == 0) {
-            throw new InvalidMp3Exception("MP3 audio data is required");
+    private final Mp3HeaderParser headerParser;
+
+    /**
+     * Uses the lightweight header parser and falls back to a full Tika parse
+     * for files it cannot handle.
+     */
+    public SongMetadataDto extract(Path audioFile) {
+        Optional<Mp3HeaderParser.Mp3Metadata> parsed = headerParser.parse(audioFile);
+        if (parsed.isEmpty()) {
+            log.debug("Header parser could not handle {}, falling back to Tika", audioFile);
+            return extractWithTika(audioFile);
         }
 
-        try (InputStream inputStream = new ByteArrayInputStream(audioData)) {
+        Mp3HeaderParser.Mp3Metadata metadata = parsed.get();
+        return buildMetadata(
+                metadata.title(),
+                metadata.artist(),
+                metadata.album(),
+                parseYear(metadata.year()),
+                formatDuration(metadata.durationSeconds())
+        );
+    }
+
+    public SongMetadataDto extractWithTika(Path audioFile) {
+        try (InputStream inputStream = TikaInputStream.get(audioFile)) {
             ContentHandler handler = new BodyContentHandler();
             Metadata metadata = new Metadata();
             ParseContext parseContext = new ParseContext();
@@ -36,21 +59,25 @@ public class AudioMetadataExtractor {
             String duration = convertSecondsToMMSS(metadata.get("xmpDM:duration"));
             String year = parseYear(metadata.get("xmpDM:releaseDate"));
 
-            log.debug("Extracted MP3 metadata - name: '{}', artist: '{}', album: '{}', duration: '{}', year: '{}'",
-                    name, artist, album, duration, year);
-
-            return SongMetadataDto.builder()
-                    .name(name)
-                    .artist(artist)
-                    .album(album)
-                    .duration(duration)
-                    .year(year)
-                    .build();
+            return buildMetadata(name, artist, album, year, duration);
         } catch (Exception e) {
             throw new InvalidMp3Exception("Invalid MP3 file format or corrupted file", e);
         }
     }
 
+    private SongMetadataDto buildMetadata(String name, String artist, String album, String year, String duration) {
+        log.debug("Extracted MP3 metadata - name: '{}', artist: '{}', album: '{}', duration: '{}', year: '{}'",
+                name, artist, album, duration, year);
+
+        return SongMetadataDto.builder()
+                .name(name)
+                .artist(artist)
+                .album(album)
+                .duration(duration)
+                .year(year)
+                .build();
+    }
+
     private String parseYear(String year) {
         if (year == null || year.length() < 4) {
             return null;
@@ -64,14 +91,17 @@ public class AudioMetadataExtractor {
         }
 
         try {
-            double seconds = Double.parseDouble(durationInSeconds);
-            int totalSeconds = (int) seconds;
-            int minutes = totalSeconds / 60;
-            int secs = totalSeconds % 60;
-            return String.format("%02d:%02d", minutes, secs);
+            return formatDuration(Double.parseDouble(durationInSeconds));
         } catch (NumberFormatException e) {
             log.warn("Invalid duration format: {}, defaulting to 00:00", durationInSeconds);
             return "00:00";
         }
     }
-}
\ No newline at end of file
+
+    private String formatDuration(double seconds) {
+        int totalSeconds = (int) seconds;
+        int minutes = totalSeconds / 60;
+        int secs = totalSeconds % 60;
+        return String.format("%02d:%02d", minutes, secs);
+    }
+}
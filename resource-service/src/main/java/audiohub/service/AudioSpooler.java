@@ -0,0 +1,127 @@
+package audiohub.service;
+
+import audiohub.exception.InvalidMp3Exception;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+@Slf4j
+@Service
+public class AudioSpooler {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long BYTES_IN_MB = 1024 * 1024;
+
+    /**
+     * Copies the upload to a temporary file with a fixed-size buffer, so heap usage does not
+     * depend on the file size, hashing it on the way. Reading stops as soon as
+     * {@code maxSizeBytes} is exceeded.
+     */
+    public SpooledAudio spool(InputStream audioStream, long maxSizeBytes) {
+        Path file = createTempFile();
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+            int read;
+            while ((read = audioStream.read(buffer)) != -1) {
+                size += read;
+                checkSize(size, maxSizeBytes);
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+
+            if (size == 0) {
+                throw new InvalidMp3Exception("MP3 audio data is required");
+            }
+
+            return new SpooledAudio(file, size, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new InvalidMp3Exception("Failed to read uploaded audio data", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes over a multipart file instead of copying it again: the servlet container has
+     * already spooled the part to disk, so its file is moved into place and only read to
+     * hash it.
+     */
+    public SpooledAudio spool(MultipartFile part, long maxSizeBytes) {
+        checkSize(part.getSize(), maxSizeBytes);
+        if (part.isEmpty()) {
+            throw new InvalidMp3Exception("MP3 audio data is required");
+        }
+
+        Path file = createTempFile();
+        try {
+            // Unlike transferTo(Path), this lets the container move its own file
+            part.transferTo(new File(file.toString()));
+            return new SpooledAudio(file, Files.size(file), checksum(file));
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new InvalidMp3Exception("Failed to read uploaded audio data", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private String checksum(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void checkSize(long size, long maxSizeBytes) {
+        if (size > maxSizeBytes) {
+            throw new InvalidMp3Exception(
+                    "Audio file is too large. Max allowed size is %d MB".formatted(maxSizeBytes / BYTES_IN_MB)
+            );
+        }
+    }
+
+    private Path createTempFile() {
+        try {
+            return Files.createTempFile("resource-upload-", ".mp3");
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create temporary file for upload", e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled upload {}", file, e);
+        }
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package audiohub.service;
+
+import audiohub.config.BulkDeleteProps;
+import audiohub.dto.response.BulkDeleteResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes long ID lists chunk by chunk, each chunk in its own transaction with the same
+ * cascade as a single delete, so no transaction holds locks for the whole list. If a chunk
+ * fails, the chunks before it stay deleted; deleting is idempotent, so the request can
+ * simply be repeated.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkResourceDeleteService {
+
+    private final Mp3ResourceService resourceService;
+    private final ResourceIdParser resourceIdParser;
+    private final BulkDeleteProps props;
+
+    public BulkDeleteResponse deleteAll(Reader idList) throws IOException {
+        long[] ids = resourceIdParser.parsePositiveIds(idList, props.maxIds());
+
+        int deleted = 0;
+        for (int from = 0; from < ids.length; from += props.chunkSize()) {
+            Set<Long> chunk = Arrays.stream(ids, from, Math.min(from + props.chunkSize(), ids.length))
+                    .boxed()
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            deleted += resourceService.deleteResources(chunk).size();
+        }
+
+        log.info("Bulk delete removed {} of {} resources", deleted, ids.length);
+
+        return new BulkDeleteResponse(ids.length, deleted);
+    }
+}
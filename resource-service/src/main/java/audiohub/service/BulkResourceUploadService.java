@@ -0,0 +1,154 @@
+package audiohub.service;
+
+import audiohub.config.BulkUploadProps;
+import audiohub.dto.response.BulkUploadResponse;
+import audiohub.dto.response.BulkUploadResult;
+import audiohub.entity.ResourceEntity;
+import audiohub.exception.InvalidMp3Exception;
+import audiohub.exception.InvalidSongMetadataException;
+import jakarta.validation.ConstraintViolation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Uploads many files in one request. Files are taken over from the multipart request and
+ * parsed in parallel on the bulk upload executor, then persisted in batches, each batch in
+ * its own transaction. A file that fails only fails its own result: when a batch can't be
+ * stored, its files are retried one at a time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkResourceUploadService {
+
+    private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+
+    private final Mp3ResourceService resourceService;
+    private final ThreadPoolTaskExecutor bulkUploadExecutor;
+    private final BulkUploadProps props;
+
+    public BulkUploadResponse storeAll(List<MultipartFile> files) {
+        if (files.isEmpty()) {
+            throw new InvalidMp3Exception("At least one MP3 file is required");
+        }
+        if (files.size() > props.maxFiles()) {
+            throw new InvalidMp3Exception(
+                    "Too many files: received %d, maximum allowed is %d".formatted(files.size(), props.maxFiles())
+            );
+        }
+
+        List<CompletableFuture<PreparedUpload>> preparing = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> prepare(file), bulkUploadExecutor))
+                .toList();
+
+        BulkUploadResult[] results = new BulkUploadResult[files.size()];
+        List<Integer> preparedIndexes = new ArrayList<>(files.size());
+        List<PreparedUpload> prepared = new ArrayList<>(files.size());
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                try {
+                    prepared.add(preparing.get(i).join());
+                    preparedIndexes.add(i);
+                } catch (CompletionException e) {
+                    results[i] = failed(files.get(i), e.getCause());
+                }
+            }
+
+            for (int from = 0; from < prepared.size(); from += props.persistBatchSize()) {
+                int to = Math.min(from + props.persistBatchSize(), prepared.size());
+                persistBatch(files, prepared.subList(from, to), preparedIndexes.subList(from, to), results);
+            }
+        } finally {
+            prepared.forEach(PreparedUpload::close);
+        }
+
+        log.info("Bulk upload stored {} of {} files", countStored(results), files.size());
+
+        return new BulkUploadResponse(Arrays.asList(results));
+    }
+
+    private PreparedUpload prepare(MultipartFile file) {
+        if (!isAcceptedContentType(file.getContentType())) {
+            throw new InvalidMp3Exception(
+                    "Invalid file format: %s. Only MP3 files are allowed".formatted(file.getContentType())
+            );
+        }
+
+        return resourceService.prepare(file);
+    }
+
+    /**
+     * Many clients send parts without a specific type; those are left to the MP3 parser to reject.
+     */
+    private static boolean isAcceptedContentType(String contentType) {
+        if (contentType == null) {
+            return true;
+        }
+
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return AUDIO_MPEG.equalsTypeAndSubtype(mediaType)
+                || MediaType.APPLICATION_OCTET_STREAM.equalsTypeAndSubtype(mediaType);
+    }
+
+    private void persistBatch(List<MultipartFile> files, List<PreparedUpload> batch, List<Integer> indexes,
+                              BulkUploadResult[] results) {
+        try {
+            List<ResourceEntity> resources = resourceService.persist(batch);
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                results[index] = BulkUploadResult.stored(files.get(index).getOriginalFilename(),
+                        resources.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                String fileName = files.get(indexes.get(0)).getOriginalFilename();
+                log.error("Failed to store {} in bulk upload", fileName, e);
+                results[indexes.get(0)] = BulkUploadResult.failed(fileName, "Failed to store resource", null);
+                return;
+            }
+
+            log.warn("Failed to store bulk upload batch of {} files, storing them one by one: {}",
+                    batch.size(), e.toString());
+            for (int i = 0; i < batch.size(); i++) {
+                persistBatch(files, batch.subList(i, i + 1), indexes.subList(i, i + 1), results);
+            }
+        }
+    }
+
+    private BulkUploadResult failed(MultipartFile file, Throwable cause) {
+        String fileName = file.getOriginalFilename();
+
+        if (cause instanceof InvalidSongMetadataException ex) {
+            Map<String, String> details = new HashMap<>();
+            for (ConstraintViolation<?> v : ex.getViolations()) {
+                details.put(v.getPropertyPath().toString(), v.getMessage());
+            }
+            return BulkUploadResult.failed(fileName, ex.getMessage(), details);
+        }
+        if (cause instanceof InvalidMp3Exception ex) {
+            log.warn("Invalid MP3 file {} in bulk upload: {}", fileName, ex.getMessage());
+            return BulkUploadResult.failed(fileName, ex.getMessage(), null);
+        }
+
+        log.error("Failed to process {} in bulk upload", fileName, cause);
+        return BulkUploadResult.failed(fileName, "An unexpected error occurred", null);
+    }
+
+    private static long countStored(BulkUploadResult[] results) {
+        return Arrays.stream(results)
+                .filter(result -> result.id() != null)
+                .count();
+    }
+}
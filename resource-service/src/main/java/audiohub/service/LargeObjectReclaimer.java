@@ -0,0 +1,88 @@
+package audiohub.service;
+
+import audiohub.config.BlobStoreProps;
+import audiohub.repository.ResourceRepository;
+import audiohub.repository.ResourceRepository.ReclaimedLargeObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Unlinks the large objects deletes released, which they record in
+ * {@code released_large_objects} instead of unlinking them. Only those are candidates:
+ * other large objects in the database, whoever created them, are left alone. Each batch
+ * runs in its own short transaction, with a pause in between, so unlinking big objects
+ * never holds locks for long or competes with requests for the database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "database", matchIfMissing = true)
+@ConditionalOnProperty(name = "blob-store.reclaimer.enabled", havingValue = "true")
+public class LargeObjectReclaimer {
+
+    private final ResourceRepository resourceRepository;
+    private final BlobStoreProps.Reclaimer props;
+    private final Counter reclaimedObjects;
+    private final Counter reclaimedBytes;
+
+    public LargeObjectReclaimer(ResourceRepository resourceRepository, BlobStoreProps blobStoreProps,
+                                MeterRegistry meterRegistry) {
+        this.resourceRepository = resourceRepository;
+        this.props = blobStoreProps.reclaimer();
+        this.reclaimedObjects = Counter.builder("blob.store.reclaimed")
+                .description("Released large objects unlinked")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("blob.store.reclaimed.bytes")
+                .description("Size of the released large objects unlinked")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${blob-store.reclaimer.interval}")
+    public void reclaim() {
+        long objects = 0;
+        long bytes = 0;
+
+        List<ReclaimedLargeObject> batch;
+        do {
+            try {
+                batch = resourceRepository.unlinkReleasedLargeObjects(props.batchSize());
+            } catch (DataAccessException e) {
+                log.warn("Reclaiming large objects failed, retrying next run", e);
+                break;
+            }
+
+            // Objects already gone or referenced again are only taken off the list
+            List<Long> sizes = batch.stream()
+                    .map(ReclaimedLargeObject::getSize)
+                    .filter(Objects::nonNull)
+                    .toList();
+            long batchBytes = sizes.stream().mapToLong(Long::longValue).sum();
+            objects += sizes.size();
+            bytes += batchBytes;
+            reclaimedObjects.increment(sizes.size());
+            reclaimedBytes.increment(batchBytes);
+        } while (batch.size() == props.batchSize() && pause());
+
+        if (objects > 0) {
+            log.info("Reclaimed {} released large objects ({} bytes)", objects, bytes);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(props.batchPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
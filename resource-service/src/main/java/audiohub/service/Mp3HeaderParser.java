@@ -0,0 +1,402 @@
+package audiohub.service;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Reads song metadata from ID3v2 (2.2-2.4) and ID3v1 tags and derives the duration from
+ * the Xing/Info or VBRI header of the first MPEG frame, or from the bitrate for CBR files.
+ * Only the tag frames it needs and a few header bytes are read; artwork and audio frames
+ * are skipped by position. Returns empty for layouts it does not handle (unsynchronised,
+ * compressed or encrypted frames, no recognisable MPEG frame) so callers can fall back
+ * to a full parser.
+ */
+@Component
+public class Mp3HeaderParser {
+
+    private static final int ID3V2_HEADER_SIZE = 10;
+    private static final int ID3V2_FOOTER_SIZE = 10;
+    private static final int ID3V1_SIZE = 128;
+    private static final int MAX_TEXT_FRAME_SIZE = 64 * 1024;
+    private static final int FRAME_SEARCH_WINDOW = 64 * 1024;
+    private static final int VBR_HEADER_WINDOW = 64;
+    private static final int VBRI_OFFSET = 36;
+
+    private static final int[][] BITRATES_KBPS = {
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448}, // MPEG-1 layer I
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},    // MPEG-1 layer II
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},     // MPEG-1 layer III
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},    // MPEG-2/2.5 layer I
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}          // MPEG-2/2.5 layer II & III
+    };
+    private static final int[] MPEG1_SAMPLE_RATES = {44100, 48000, 32000};
+
+    public record Mp3Metadata(
+            String title,
+            String artist,
+            String album,
+            String year,
+            double durationSeconds
+    ) {
+    }
+
+    public Optional<Mp3Metadata> parse(Path audioFile) {
+        try (FileChannel channel = FileChannel.open(audioFile, StandardOpenOption.READ)) {
+            return parse(channel);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Mp3Metadata> parse(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        Tags tags = new Tags();
+        long audioStart = 0;
+
+        ByteBuffer header = read(channel, 0, ID3V2_HEADER_SIZE);
+        if (header != null && isId3v2(header)) {
+            int majorVersion = header.get(3);
+            int flags = header.get(5) & 0xFF;
+            long framesEnd = ID3V2_HEADER_SIZE + (long) synchsafe(header, 6);
+
+            if (majorVersion < 2 || majorVersion > 4 || (flags & 0x80) != 0) {
+                return Optional.empty();
+            }
+            if (!readId3v2Frames(channel, majorVersion, flags, framesEnd, tags)) {
+                return Optional.empty();
+            }
+
+            audioStart = framesEnd + (majorVersion == 4 && (flags & 0x10) != 0 ? ID3V2_FOOTER_SIZE : 0);
+        }
+
+        long audioEnd = readId3v1(channel, fileSize, tags) ? fileSize - ID3V1_SIZE : fileSize;
+
+        Double duration = readDuration(channel, audioStart, audioEnd);
+        if (duration == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new Mp3Metadata(tags.title, tags.artist, tags.album, tags.year, duration));
+    }
+
+    private boolean readId3v2Frames(FileChannel channel, int majorVersion, int flags, long framesEnd, Tags tags)
+            throws IOException {
+        long position = ID3V2_HEADER_SIZE;
+
+        if ((flags & 0x40) != 0) {
+            if (majorVersion == 2) {
+                return false; // compressed ID3v2.2 tag
+            }
+            ByteBuffer extendedHeader = read(channel, position, 4);
+            if (extendedHeader == null) {
+                return false;
+            }
+            position += majorVersion == 4 ? synchsafe(extendedHeader, 0) : extendedHeader.getInt(0) + 4L;
+        }
+
+        int headerSize = majorVersion == 2 ? 6 : 10;
+        while (position + headerSize <= framesEnd && !tags.isComplete()) {
+            ByteBuffer frameHeader = read(channel, position, headerSize);
+            if (frameHeader == null || frameHeader.get(0) == 0) {
+                break; // padding
+            }
+
+            String frameId = frameId(frameHeader, majorVersion == 2 ? 3 : 4);
+            if (frameId == null) {
+                return false;
+            }
+
+            long frameSize;
+            int formatFlags;
+            if (majorVersion == 2) {
+                frameSize = ((frameHeader.get(3) & 0xFF) << 16) | ((frameHeader.get(4) & 0xFF) << 8)
+                        | (frameHeader.get(5) & 0xFF);
+                formatFlags = 0;
+            } else if (majorVersion == 3) {
+                frameSize = frameHeader.getInt(4) & 0xFFFFFFFFL;
+                formatFlags = frameHeader.getShort(8) & 0x00E0; // compression, encryption, grouping
+            } else {
+                frameSize = synchsafe(frameHeader, 4);
+                formatFlags = frameHeader.getShort(8) & 0x004F; // grouping, compression, encryption, unsync, length
+            }
+
+            long contentStart = position + headerSize;
+            if (contentStart + frameSize > framesEnd) {
+                return false;
+            }
+
+            if (tags.wants(frameId)) {
+                if (formatFlags != 0 || frameSize > MAX_TEXT_FRAME_SIZE) {
+                    return false;
+                }
+                ByteBuffer content = read(channel, contentStart, (int) frameSize);
+                if (content == null) {
+                    return false;
+                }
+                tags.set(frameId, decodeText(content));
+            }
+
+            position = contentStart + frameSize;
+        }
+
+        return true;
+    }
+
+    private boolean readId3v1(FileChannel channel, long fileSize, Tags tags) throws IOException {
+        if (fileSize < ID3V1_SIZE) {
+            return false;
+        }
+
+        ByteBuffer tag = read(channel, fileSize - ID3V1_SIZE, ID3V1_SIZE);
+        if (tag == null || tag.get(0) != 'T' || tag.get(1) != 'A' || tag.get(2) != 'G') {
+            return false;
+        }
+
+        tags.fillMissing(
+                latin1(tag, 3, 30),
+                latin1(tag, 33, 30),
+                latin1(tag, 63, 30),
+                latin1(tag, 93, 4)
+        );
+        return true;
+    }
+
+    private Double readDuration(FileChannel channel, long audioStart, long audioEnd) throws IOException {
+        int windowSize = (int) Math.min(FRAME_SEARCH_WINDOW, audioEnd - audioStart);
+        if (windowSize < 4) {
+            return null;
+        }
+
+        ByteBuffer window = read(channel, audioStart, windowSize);
+        if (window == null) {
+            return null;
+        }
+
+        for (int offset = 0; offset + 4 <= windowSize; offset++) {
+            FrameHeader frame = FrameHeader.parse(window.getInt(offset));
+            if (frame == null) {
+                continue;
+            }
+
+            long frameStart = audioStart + offset;
+            if (!isFollowedByFrame(channel, frameStart + frame.length(), audioEnd)) {
+                continue;
+            }
+
+            Long frameCount = readVbrFrameCount(channel, frameStart, frame);
+            if (frameCount != null) {
+                return (double) frameCount * frame.samplesPerFrame() / frame.sampleRate();
+            }
+
+            return (audioEnd - frameStart) * 8.0 / frame.bitrate();
+        }
+
+        return null;
+    }
+
+    private boolean isFollowedByFrame(FileChannel channel, long nextFrameStart, long audioEnd) throws IOException {
+        if (nextFrameStart == audioEnd) {
+            return true;
+        }
+
+        ByteBuffer next = nextFrameStart + 4 <= audioEnd ? read(channel, nextFrameStart, 4) : null;
+        return next != null && FrameHeader.parse(next.getInt(0)) != null;
+    }
+
+    private Long readVbrFrameCount(FileChannel channel, long frameStart, FrameHeader frame) throws IOException {
+        if (frame.layer() != 3) {
+            return null;
+        }
+
+        ByteBuffer header = read(channel, frameStart, (int) Math.min(VBRI_OFFSET + VBR_HEADER_WINDOW, frame.length()));
+        if (header == null) {
+            return null;
+        }
+
+        int xingOffset = frame.xingOffset();
+        if (header.limit() >= xingOffset + 12
+                && (hasTag(header, xingOffset, "Xing") || hasTag(header, xingOffset, "Info"))) {
+            int flags = header.getInt(xingOffset + 4);
+            return (flags & 0x1) != 0 ? header.getInt(xingOffset + 8) & 0xFFFFFFFFL : null;
+        }
+
+        if (header.limit() >= VBRI_OFFSET + 18 && hasTag(header, VBRI_OFFSET, "VBRI")) {
+            return header.getInt(VBRI_OFFSET + 14) & 0xFFFFFFFFL;
+        }
+
+        return null;
+    }
+
+    private record FrameHeader(
+            int version, // 1 = MPEG-1, 2 = MPEG-2, 25 = MPEG-2.5
+            int layer,
+            int bitrate,
+            int sampleRate,
+            boolean mono,
+            int samplesPerFrame,
+            int length
+    ) {
+
+        static FrameHeader parse(int header) {
+            if ((header >>> 21) != 0x7FF) {
+                return null;
+            }
+
+            int versionBits = (header >>> 19) & 0x3;
+            int layerBits = (header >>> 17) & 0x3;
+            int bitrateIndex = (header >>> 12) & 0xF;
+            int sampleRateIndex = (header >>> 10) & 0x3;
+            int padding = (header >>> 9) & 0x1;
+            boolean mono = ((header >>> 6) & 0x3) == 3;
+
+            if (versionBits == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null;
+            }
+
+            int version = versionBits == 3 ? 1 : versionBits == 2 ? 2 : 25;
+            int layer = 4 - layerBits;
+
+            int table = version == 1 ? layer - 1 : layer == 1 ? 3 : 4;
+            int bitrate = BITRATES_KBPS[table][bitrateIndex] * 1000;
+            int sampleRate = MPEG1_SAMPLE_RATES[sampleRateIndex] / (version == 1 ? 1 : version == 2 ? 2 : 4);
+
+            int samplesPerFrame;
+            int length;
+            if (layer == 1) {
+                samplesPerFrame = 384;
+                length = (12 * bitrate / sampleRate + padding) * 4;
+            } else {
+                samplesPerFrame = layer == 3 && version != 1 ? 576 : 1152;
+                length = samplesPerFrame / 8 * bitrate / sampleRate + padding;
+            }
+
+            return new FrameHeader(version, layer, bitrate, sampleRate, mono, samplesPerFrame, length);
+        }
+
+        /**
+         * Xing/Info headers follow the layer III side information.
+         */
+        int xingOffset() {
+            if (version == 1) {
+                return mono ? 4 + 17 : 4 + 32;
+            }
+            return mono ? 4 + 9 : 4 + 17;
+        }
+    }
+
+    private static final class Tags {
+
+        private String title;
+        private String artist;
+        private String album;
+        private String year;
+
+        boolean wants(String frameId) {
+            return switch (frameId) {
+                case "TIT2", "TT2" -> title == null;
+                case "TPE1", "TP1" -> artist == null;
+                case "TALB", "TAL" -> album == null;
+                case "TYER", "TDRC", "TYE" -> year == null;
+                default -> false;
+            };
+        }
+
+        void set(String frameId, String value) {
+            switch (frameId) {
+                case "TIT2", "TT2" -> title = value;
+                case "TPE1", "TP1" -> artist = value;
+                case "TALB", "TAL" -> album = value;
+                default -> year = value;
+            }
+        }
+
+        void fillMissing(String title, String artist, String album, String year) {
+            this.title = this.title != null ? this.title : title;
+            this.artist = this.artist != null ? this.artist : artist;
+            this.album = this.album != null ? this.album : album;
+            this.year = this.year != null ? this.year : year;
+        }
+
+        boolean isComplete() {
+            return title != null && artist != null && album != null && year != null;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static boolean isId3v2(ByteBuffer header) {
+        return header.get(0) == 'I' && header.get(1) == 'D' && header.get(2) == '3';
+    }
+
+    private static int synchsafe(ByteBuffer buffer, int offset) {
+        return ((buffer.get(offset) & 0x7F) << 21)
+                | ((buffer.get(offset + 1) & 0x7F) << 14)
+                | ((buffer.get(offset + 2) & 0x7F) << 7)
+                | (buffer.get(offset + 3) & 0x7F);
+    }
+
+    private static String frameId(ByteBuffer header, int length) {
+        char[] id = new char[length];
+        for (int i = 0; i < length; i++) {
+            char c = (char) header.get(i);
+            if (!(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9')) {
+                return null;
+            }
+            id[i] = c;
+        }
+        return new String(id);
+    }
+
+    private static boolean hasTag(ByteBuffer buffer, int offset, String tag) {
+        for (int i = 0; i < tag.length(); i++) {
+            if (buffer.get(offset + i) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decodeText(ByteBuffer content) {
+        if (content.limit() < 2) {
+            return null;
+        }
+
+        Charset charset = switch (content.get(0)) {
+            case 1 -> StandardCharsets.UTF_16;
+            case 2 -> StandardCharsets.UTF_16BE;
+            case 3 -> StandardCharsets.UTF_8;
+            default -> StandardCharsets.ISO_8859_1;
+        };
+
+        return firstValue(new String(content.array(), 1, content.limit() - 1, charset));
+    }
+
+    private static String latin1(ByteBuffer buffer, int offset, int length) {
+        return firstValue(new String(buffer.array(), offset, length, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Text values are null-terminated, and ID3v2.4 separates multiple values with nulls.
+     */
+    private static String firstValue(String text) {
+        int end = text.indexOf('\0');
+        String value = (end >= 0 ? text.substring(0, end) : text).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
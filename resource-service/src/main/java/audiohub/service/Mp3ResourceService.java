@@ -1,99 +1,364 @@
 package audiohub.service;
 
+import audiohub.cache.ResourceContentCache;
 import audiohub.dto.request.SongMetadataDto;
 import audiohub.dto.response.DeleteResourcesResponse;
 import audiohub.dto.response.UploadResourceResponse;
 import audiohub.entity.ResourceEntity;
-import audiohub.exception.InvalidMp3Exception;
+import audiohub.entity.SongMetadataOutboxEntity;
 import audiohub.exception.InvalidResourceIdException;
 import audiohub.exception.InvalidSongMetadataException;
+import audiohub.exception.RangeNotSatisfiableException;
 import audiohub.exception.ResourceNotFoundException;
+import audiohub.exception.SongServiceException;
+import audiohub.monitoring.ResourceMetrics;
+import audiohub.monitoring.ResourceMetrics.UploadStage;
+import audiohub.monitoring.TraceLinks;
 import audiohub.repository.ResourceRepository;
+import audiohub.repository.ResourceRepository.DeletedResource;
+import audiohub.repository.SongMetadataOutboxRepository;
+import audiohub.storage.BlobStore;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class Mp3ResourceService {
 
-    private static final int MAX_AUDIO_SIZE_BYTES = 50 * 1024 * 1024; // 50 MiB
+    static final long MAX_AUDIO_SIZE_BYTES = 50 * 1024 * 1024; // 50 MiB
 
     private final Validator validator;
     private final ResourceRepository resourceRepository;
+    private final SongMetadataOutboxRepository outboxRepository;
     private final AudioMetadataExtractor metadataExtractor;
     private final SongServiceClient songServiceClient;
     private final ResourceIdParser resourceIdParser;
+    private final AudioSpooler audioSpooler;
+    private final BlobStore blobStore;
+    private final ResourceContentCache contentCache;
+    private final ResourceMetrics metrics;
+    private final TraceLinks traceLinks;
+    private final TransactionTemplate transactionTemplate;
+    private final UploadAdmission uploadAdmission;
 
+    /**
+     * Runs in phases so that a database connection is only held for the write: the upload is
+     * spooled, parsed and validated without one, the blob and rows are written in one short
+     * transaction, and the metadata reaches song-service from the outbox after commit.
+     */
+    public UploadResourceResponse store(InputStream audioStream) {
+        try (PreparedUpload upload = prepare(audioStream)) {
+            ResourceEntity resource = transactionTemplate.execute(status -> persist(List.of(upload))).get(0);
+            return new UploadResourceResponse(resource.getId());
+        }
+    }
+
+    /**
+     * Spools the upload and extracts and validates its metadata. Needs no transaction,
+     * so bulk uploads can prepare files in parallel; concurrent extractions are limited
+     * by {@link UploadAdmission}.
+     */
+    public PreparedUpload prepare(InputStream audioStream) {
+        return prepare(metrics.recordUploadStage(UploadStage.SPOOL,
+                () -> audioSpooler.spool(audioStream, MAX_AUDIO_SIZE_BYTES)));
+    }
+
+    /**
+     * Like {@link #prepare(InputStream)}, for a part of a multipart request.
+     */
+    public PreparedUpload prepare(MultipartFile part) {
+        return prepare(metrics.recordUploadStage(UploadStage.SPOOL,
+                () -> audioSpooler.spool(part, MAX_AUDIO_SIZE_BYTES)));
+    }
+
+    private PreparedUpload prepare(SpooledAudio audio) {
+        metrics.recordUploadSize(audio.size());
+        try {
+            SongMetadataDto metadata = uploadAdmission.extract(
+                    () -> metrics.recordUploadStage(UploadStage.EXTRACT, () -> extractMetadata(audio)));
+            return new PreparedUpload(audio, metadata);
+        } catch (RuntimeException e) {
+            audio.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Stores blobs and inserts the resource and outbox rows for the uploads in one transaction.
+     * Content locks are taken up front with a single statement, in the order deletes use as well, and
+     * existing blobs are looked up with a single query, so nothing forces a flush before
+     * commit and the inserts go out as JDBC batches.
+     */
     @Transactional
-    public UploadResourceResponse store(byte[] audioData) {
-        validateAudioSize(audioData);
+    public List<ResourceEntity> persist(List<PreparedUpload> uploads) {
+        observeTransaction(metrics.startUploadTransaction());
 
-        SongMetadataDto metadata = metadataExtractor.extract(audioData);
+        Set<String> checksums = uploads.stream()
+                .map(upload -> upload.audio().checksum())
+                .collect(Collectors.toCollection(TreeSet::new));
+        lockContents(checksums.stream());
 
-        validateSongMetadata(metadata);
+        Map<String, String> storageKeys = new HashMap<>();
+        resourceRepository.findStoredContent(checksums)
+                .forEach(content -> storageKeys.put(content.getChecksum(), content.getStorageKey()));
 
-        ResourceEntity resource = ResourceEntity.builder()
-                .data(audioData)
-                .build();
+        String traceParent = traceLinks.currentTraceParent();
+        List<ResourceEntity> resources = new ArrayList<>(uploads.size());
+        for (PreparedUpload upload : uploads) {
+            SpooledAudio audio = upload.audio();
+            boolean duplicate = storageKeys.containsKey(audio.checksum());
+            String storageKey = storageKeys.computeIfAbsent(audio.checksum(),
+                    checksum -> metrics.recordUploadStage(UploadStage.BLOB_WRITE,
+                            () -> blobStore.put(audio.file(), checksum)));
 
-        resource = resourceRepository.save(resource);
-        songServiceClient.createSongMetadata(resource.getId(), metadata);
+            ResourceEntity resource = resourceRepository.save(ResourceEntity.builder()
+                    .storageKey(storageKey)
+                    .size(audio.size())
+                    .checksum(audio.checksum())
+                    .build());
+            // Delivered to song-service by SongMetadataOutboxDispatcher once this commits
+            outboxRepository.save(SongMetadataOutboxEntity.of(resource.getId(), upload.metadata(), traceParent));
+            resources.add(resource);
 
-        log.info("Saved resource with ID: {}", resource.getId());
+            if (duplicate) {
+                log.info("Saved resource with ID: {} reusing blob {}", resource.getId(), storageKey);
+            } else {
+                log.info("Saved resource with ID: {} ({} bytes)", resource.getId(), audio.size());
+            }
+        }
 
-        return new UploadResourceResponse(resource.getId());
+        return resources;
     }
 
-    public byte[] getResource(String id) {
-        Long resourceId;
+    @Transactional(readOnly = true)
+    public StoredResource findStoredResource(String id) {
+        ResourceEntity resource = findResource(parseResourceId(id));
+
+        return new StoredResource(
+                resource.getId(),
+                resource.getStorageKey(),
+                resource.getSize(),
+                resource.getChecksum(),
+                resource.getUploadTime().atZone(ZoneId.systemDefault()).toInstant()
+        );
+    }
+
+    public ResourceRange resolveRange(StoredResource resource, String rangeHeader) {
+        long totalLength = resource.size();
+
+        HttpRange range = parseSingleRange(rangeHeader);
+        if (range == null) {
+            return ResourceRange.full(resource.id(), resource.storageKey(), totalLength);
+        }
+
+        long start;
+        long end;
         try {
-            resourceId = resourceIdParser.parsePositiveId(id);
-        } catch (InvalidResourceIdException e) {
-            throw new InvalidResourceIdException(
-                    "Invalid value '%s' for ID. Must be a positive integer".formatted(id)
+            start = range.getRangeStart(totalLength);
+            end = range.getRangeEnd(totalLength);
+        } catch (IllegalArgumentException e) {
+            start = totalLength;
+            end = -1;
+        }
+
+        if (start > end) {
+            throw new RangeNotSatisfiableException(
+                    "Range '%s' is not satisfiable for resource with ID=%s".formatted(rangeHeader, resource.id()),
+                    totalLength
             );
         }
 
-        return resourceRepository.findById(resourceId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Resource with ID=" + id + " not found"
-                )).getData();
+        return new ResourceRange(resource.id(), resource.storageKey(), start, end, totalLength);
+    }
+
+    public void writeResource(ResourceRange range, OutputStream out) throws IOException {
+        Timer.Sample sample = metrics.startDownload();
+        contentCache.copyTo(range.storageKey(), range.totalLength(), range.start(), range.length(), out);
+        metrics.recordDownload(sample, range.isPartial(), range.length());
     }
 
-    @Transactional
     public DeleteResourcesResponse deleteResources(String idCsv) {
         Set<Long> parsedIds = resourceIdParser.parsePositiveIds(idCsv);
-        if (parsedIds.isEmpty()) {
-            return new DeleteResourcesResponse(Set.of());
+
+        return new DeleteResourcesResponse(deleteResources(parsedIds));
+    }
+
+    /**
+     * Deletes the resources together with their undelivered outbox entries and any blob no
+     * other resource references, then their song metadata. The song-service call comes after
+     * the commit, so its retries and hedges don't hold a connection or locks; if it fails the
+     * resources stay deleted and the leftover metadata is only logged.
+     *
+     * @return IDs of the resources that existed
+     */
+    public Set<Long> deleteResources(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
         }
 
-        Set<Long> deletedIds = resourceRepository.deleteAndReturnIds(parsedIds);
+        Set<Long> deletedIds = transactionTemplate.execute(status -> deleteRows(ids));
         if (deletedIds.isEmpty()) {
-            return new DeleteResourcesResponse(Set.of());
+            return deletedIds;
         }
 
-        songServiceClient.deleteSongMetadataCSV(deletedIds);
-
         log.info("Deleted {} resources", deletedIds.size());
+        deleteSongMetadata(deletedIds);
+
+        return deletedIds;
+    }
+
+    private Set<Long> deleteRows(Set<Long> ids) {
+        List<DeletedResource> deleted = resourceRepository.deleteAndReturn(ids.toArray(Long[]::new));
+        if (deleted.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> deletedIds = deleted.stream()
+                .map(DeletedResource::getId)
+                .collect(Collectors.toSet());
 
-        return new DeleteResourcesResponse(deletedIds);
+        outboxRepository.deleteByResourceIds(deletedIds.toArray(Long[]::new));
+        releaseBlobs(deleted);
+
+        return deletedIds;
+    }
+
+    private void deleteSongMetadata(Set<Long> deletedIds) {
+        try {
+            songServiceClient.deleteSongMetadata(deletedIds);
+        } catch (SongServiceException e) {
+            log.error("Song metadata for deleted resource IDs {} could not be removed", deletedIds, e);
+        }
     }
 
-    private void validateAudioSize(byte[] audioData) {
-        if (audioData != null && audioData.length > MAX_AUDIO_SIZE_BYTES) {
-            throw new InvalidMp3Exception(
-                    "Audio file is too large. Max allowed size is 50 MB"
+    private Long parseResourceId(String id) {
+        try {
+            return resourceIdParser.parsePositiveId(id);
+        } catch (InvalidResourceIdException e) {
+            throw new InvalidResourceIdException(
+                    "Invalid value '%s' for ID. Must be a positive integer".formatted(id)
             );
         }
     }
 
+    private ResourceEntity findResource(Long resourceId) {
+        return resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Resource with ID=" + resourceId + " not found"
+                ));
+    }
+
+    /**
+     * Identical uploads share one blob, and the rows referencing a storage key are its
+     * reference count: a blob is only deleted once no remaining resource references it.
+     * Runs last so that nothing after it can roll back the transaction once blobs are gone.
+     * Cached content is dropped after commit, once no resource references the blob.
+     */
+    private void releaseBlobs(List<DeletedResource> deleted) {
+        lockContents(deleted.stream().map(DeletedResource::getChecksum));
+
+        Set<String> storageKeys = deleted.stream()
+                .map(DeletedResource::getStorageKey)
+                .collect(Collectors.toCollection(HashSet::new));
+        storageKeys.removeAll(resourceRepository.findReferencedStorageKeys(storageKeys.toArray(String[]::new)));
+
+        blobStore.deleteAll(storageKeys);
+        invalidateCacheAfterCommit(storageKeys);
+    }
+
+    private void invalidateCacheAfterCommit(Set<String> storageKeys) {
+        if (storageKeys.isEmpty()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                storageKeys.forEach(contentCache::invalidate);
+            }
+        });
+    }
+
+    /**
+     * Times the transaction until it completes. The inserts are only flushed on commit, so
+     * that's where their time shows up.
+     */
+    private void observeTransaction(Timer.Sample transaction) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private Observation commit;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commit = metrics.startUploadStage(UploadStage.COMMIT);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (commit != null) {
+                    commit.stop();
+                }
+                metrics.recordUploadTransaction(transaction, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void lockContents(Stream<String> checksums) {
+        resourceRepository.lockContents(checksums
+                .map(ResourceRepository::lockKey)
+                .toArray(Long[]::new));
+    }
+
+    /**
+     * Only a single byte range is served; multi-range and malformed headers are ignored
+     * and the full content is returned, as RFC 9110 allows.
+     */
+    private HttpRange parseSingleRange(String rangeHeader) {
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return null;
+        }
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed Range header: {}", rangeHeader);
+            return null;
+        }
+    }
+
+    private SongMetadataDto extractMetadata(SpooledAudio audio) {
+        SongMetadataDto metadata = metadataExtractor.extract(audio.file());
+        validateSongMetadata(metadata);
+        return metadata;
+    }
+
     private void validateSongMetadata(SongMetadataDto metadata) {
         Set<ConstraintViolation<SongMetadataDto>> violations = validator.validate(metadata);
         if (violations.isEmpty()) {
@@ -0,0 +1,15 @@
+package audiohub.service;
+
+import audiohub.dto.request.SongMetadataDto;
+
+/**
+ * A spooled upload with its extracted and validated metadata, ready to be persisted.
+ * Closing it removes the spooled file.
+ */
+public record PreparedUpload(SpooledAudio audio, SongMetadataDto metadata) implements AutoCloseable {
+
+    @Override
+    public void close() {
+        audio.close();
+    }
+}
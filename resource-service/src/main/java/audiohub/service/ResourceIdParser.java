@@ -1,9 +1,12 @@
 package audiohub.service;
 
+import audiohub.common.IdListParser;
 import audiohub.exception.InvalidCsvException;
 import audiohub.exception.InvalidResourceIdException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.Arrays;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -35,6 +38,17 @@ public class ResourceIdParser {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Reads IDs separated by commas or whitespace (e.g. one per line) as they arrive, without
+     * holding the text in memory.
+     *
+     * @return the IDs sorted and without duplicates
+     */
+    public long[] parsePositiveIds(Reader reader, int maxIds) throws IOException {
+        return new IdListParser(maxIds, "resource", InvalidResourceIdException::new, InvalidCsvException::new)
+                .parse(reader);
+    }
+
     public Long parsePositiveId(String id) {
         if (!POSITIVE_ID_PATTERN.matcher(id).matches()) {
             throw new InvalidResourceIdException(
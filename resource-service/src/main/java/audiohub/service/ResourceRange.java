@@ -0,0 +1,26 @@
+package audiohub.service;
+
+public record ResourceRange(
+        Long resourceId,
+        String storageKey,
+        long start,
+        long end,
+        long totalLength
+) {
+
+    public static ResourceRange full(Long resourceId, String storageKey, long totalLength) {
+        return new ResourceRange(resourceId, storageKey, 0, totalLength - 1, totalLength);
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public boolean isPartial() {
+        return length() != totalLength;
+    }
+
+    public String contentRange() {
+        return "bytes %d-%d/%d".formatted(start, end, totalLength);
+    }
+}
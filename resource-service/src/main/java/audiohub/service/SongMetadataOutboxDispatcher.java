@@ -0,0 +1,186 @@
+package audiohub.service;
+
+import audiohub.config.SongMetadataOutboxProps;
+import audiohub.dto.request.CreateMetadataRequest;
+import audiohub.dto.response.CreateMetadataResult;
+import audiohub.entity.SongMetadataOutboxEntity;
+import audiohub.exception.SongServiceException;
+import audiohub.monitoring.ResourceMetrics;
+import audiohub.monitoring.TraceLinks;
+import audiohub.repository.SongMetadataOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delivers outbox entries to song-service outside of any upload transaction. Each claimed
+ * batch goes out as one {@code POST /songs/batch}; claiming, sending and settling run in
+ * separate short transactions, so no connection is held during the HTTP call.
+ * <p>
+ * Metadata song-service rejects as invalid can never be delivered, so the upload is compensated
+ * by deleting its resource again, unless {@code song-metadata-outbox.delete-rejected} is off.
+ * Entries that keep failing for other reasons are only parked once they run out of attempts.
+ * <p>
+ * Each delivery is traced as its own root span, linked to the traces of the uploads in the
+ * batch and propagated to song-service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SongMetadataOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String DELIVERY_SPAN_NAME = "deliver song metadata";
+
+    private final SongMetadataOutboxRepository outboxRepository;
+    private final SongServiceClient songServiceClient;
+    private final Mp3ResourceService resourceService;
+    private final SongMetadataOutboxProps props;
+    private final TraceLinks traceLinks;
+    private final ResourceMetrics metrics;
+
+    @Scheduled(fixedDelayString = "${song-metadata-outbox.poll-interval}")
+    public void dispatch() {
+        List<SongMetadataOutboxEntity> batch;
+        do {
+            // Claiming counts as an attempt, so entries wait while song-service is considered down
+            if (!songServiceClient.isCreateAvailable()) {
+                log.debug("Song service is unavailable, postponing delivery");
+                return;
+            }
+            batch = outboxRepository.claimBatch(props.batchSize(), props.lease().toMillis());
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } while (batch.size() == props.batchSize());
+    }
+
+    private void deliver(List<SongMetadataOutboxEntity> batch) {
+        List<CreateMetadataRequest> requests = batch.stream()
+                .map(entry -> new CreateMetadataRequest(entry.getResourceId(), entry.toMetadata()))
+                .toList();
+
+        List<String> traceParents = batch.stream()
+                .map(SongMetadataOutboxEntity::getTraceParent)
+                .toList();
+
+        List<CreateMetadataResult> results;
+        try {
+            results = traceLinks.inLinkedSpan(DELIVERY_SPAN_NAME, traceParents,
+                    () -> songServiceClient.createSongMetadata(requests));
+        } catch (SongServiceException e) {
+            String error = errorMessage(e);
+            batch.forEach(entry -> scheduleRetry(entry, error));
+            return;
+        }
+
+        Map<Long, Long> deliveredResourceIds = new HashMap<>();
+        Map<SongMetadataOutboxEntity, String> rejected = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            SongMetadataOutboxEntity entry = batch.get(i);
+            CreateMetadataResult result = results.get(i);
+            if (result.status() == CreateMetadataResult.Status.INVALID) {
+                rejected.put(entry, truncate("Rejected by song-service: " + result.details()));
+            } else {
+                deliveredResourceIds.put(entry.getId(), entry.getResourceId());
+            }
+        }
+
+        if (!deliveredResourceIds.isEmpty()) {
+            settle(deliveredResourceIds);
+        }
+        if (!rejected.isEmpty()) {
+            compensate(rejected);
+        }
+    }
+
+    private void settle(Map<Long, Long> deliveredResourceIds) {
+        Set<Long> settledResourceIds = outboxRepository.deleteEntries(deliveredResourceIds.keySet());
+
+        // Entries already gone belong to resources deleted while the request was in flight
+        Set<Long> orphanedResourceIds = new HashSet<>(deliveredResourceIds.values());
+        orphanedResourceIds.removeAll(settledResourceIds);
+        if (!orphanedResourceIds.isEmpty()) {
+            removeOrphanedMetadata(orphanedResourceIds);
+        }
+
+        log.debug("Delivered song metadata for {} resources", settledResourceIds.size());
+    }
+
+    /**
+     * Deletes the rejected resources like a client delete would, which removes their outbox
+     * entries too. If that fails the entries are parked, so the resources stay visible to
+     * operators rather than being retried forever.
+     */
+    private void compensate(Map<SongMetadataOutboxEntity, String> rejected) {
+        if (!props.deleteRejected()) {
+            rejected.forEach(this::park);
+            return;
+        }
+
+        List<Long> resourceIds = new ArrayList<>(rejected.size());
+        rejected.forEach((entry, error) -> {
+            resourceIds.add(entry.getResourceId());
+            log.warn("Deleting resource ID {}, song-service rejected its metadata: {}", entry.getResourceId(), error);
+        });
+
+        try {
+            Set<Long> deleted = resourceService.deleteResources(new HashSet<>(resourceIds));
+            metrics.recordRejectedUploads(deleted.size());
+        } catch (RuntimeException e) {
+            log.error("Resource IDs {} with rejected song metadata could not be deleted", resourceIds, e);
+            rejected.forEach(this::park);
+        }
+    }
+
+    private void scheduleRetry(SongMetadataOutboxEntity entry, String error) {
+        if (entry.getAttempts() >= props.maxAttempts()) {
+            park(entry, error);
+            return;
+        }
+
+        Duration delay = backoff(entry.getAttempts());
+        outboxRepository.reschedule(entry.getId(), delay.toMillis(), error);
+        log.warn("Failed to deliver song metadata for resource ID {} (attempt {}), retrying in {}: {}",
+                entry.getResourceId(), entry.getAttempts(), delay, error);
+    }
+
+    private void park(SongMetadataOutboxEntity entry, String error) {
+        outboxRepository.park(entry.getId(), error);
+        log.error("Giving up on song metadata for resource ID {} after {} attempts: {}",
+                entry.getResourceId(), entry.getAttempts(), error);
+    }
+
+    private void removeOrphanedMetadata(Set<Long> resourceIds) {
+        try {
+            songServiceClient.deleteSongMetadata(resourceIds);
+            log.info("Removed song metadata for resource IDs {} deleted during delivery", resourceIds);
+        } catch (SongServiceException e) {
+            log.error("Song metadata for deleted resource IDs {} could not be removed", resourceIds, e);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        int exponent = Math.min(attempts - 1, 20);
+        Duration delay = props.initialBackoff().multipliedBy(1L << exponent);
+        return delay.compareTo(props.maxBackoff()) > 0 ? props.maxBackoff() : delay;
+    }
+
+    private static String errorMessage(SongServiceException e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        return truncate(cause.getClass().getSimpleName() + ": " + cause.getMessage());
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
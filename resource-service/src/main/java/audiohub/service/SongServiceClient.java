@@ -1,77 +1,101 @@
 package audiohub.service;
 
-import audiohub.dto.request.SongMetadataDto;
+import audiohub.dto.request.CreateMetadataRequest;
+import audiohub.dto.response.CreateMetadataBatchResponse;
+import audiohub.dto.response.CreateMetadataResult;
 import audiohub.exception.SongServiceException;
-import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import audiohub.service.SongServiceResilience.Operation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Calls to song-service go through {@link SongServiceResilience}. Failures surface as
+ * {@link SongServiceException}, or as its subclass {@code SongServiceUnavailableException}
+ * when a call wasn't attempted.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SongServiceClient {
 
     private final RestClient songServiceRestClient;
+    private final SongServiceResilience resilience;
 
-    public void createSongMetadata(Long resourceId, SongMetadataDto metadata) {
+    /**
+     * Creates metadata for several resources with one request. Metadata that already exists
+     * for a resource is reported as such, so resending a batch is safe.
+     */
+    public List<CreateMetadataResult> createSongMetadata(List<CreateMetadataRequest> requests) {
         try {
-            log.debug("Creating metadata for resource ID: {}", resourceId);
+            log.debug("Creating metadata for {} resources", requests.size());
 
-            CreateMetadataRequest request = new CreateMetadataRequest(resourceId, metadata);
+            CreateMetadataBatchResponse response = resilience.execute(Operation.CREATE,
+                    () -> songServiceRestClient.post()
+                            .uri("/songs/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(requests)
+                            .retrieve()
+                            .body(CreateMetadataBatchResponse.class));
 
-            songServiceRestClient.post()
-                    .uri("/songs")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(request)
-                    .retrieve()
-                    .toBodilessEntity();
+            if (response == null || response.results() == null || response.results().size() != requests.size()) {
+                throw new IllegalStateException("Expected %d results in batch response".formatted(requests.size()));
+            }
 
+            return response.results();
+        } catch (SongServiceException e) {
+            throw e;
         } catch (Exception e) {
             throw new SongServiceException(
-                    "Failed to create metadata for resource ID: " + resourceId,
+                    "Failed to create metadata for %d resources".formatted(requests.size()),
                     e
             );
         }
     }
 
+    /**
+     * Whether metadata creates are let through; false while song-service is considered down.
+     */
+    public boolean isCreateAvailable() {
+        return resilience.isAvailable(Operation.CREATE);
+    }
 
-    public void deleteSongMetadataCSV(Set<Long> ids) {
+    /**
+     * Deletes metadata for any number of resources with one request; IDs without metadata
+     * are ignored.
+     */
+    public void deleteSongMetadata(Collection<Long> ids) {
         if (ids.isEmpty()) {
             return;
         }
 
         try {
-            log.info("Deleting song metadata for resource IDs: {}", ids);
+            log.info("Deleting song metadata for {} resource IDs", ids.size());
 
-            String idsParam = ids.stream()
+            String idList = ids.stream()
                     .map(String::valueOf)
-                    .collect(Collectors.joining(","));
+                    .collect(Collectors.joining("\n"));
 
-            songServiceRestClient.delete()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/songs")
-                            .queryParam("id", idsParam)
-                            .build())
+            resilience.execute(Operation.DELETE, () -> songServiceRestClient.post()
+                    .uri("/songs/bulk-delete")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(idList)
                     .retrieve()
-                    .toBodilessEntity();
+                    .toBodilessEntity());
 
+        } catch (SongServiceException e) {
+            throw e;
         } catch (Exception e) {
             throw new SongServiceException(
-                    "Failed to delete song metadata for resource IDs: " + ids,
+                    "Failed to delete song metadata for %d resource IDs".formatted(ids.size()),
                     e
             );
         }
     }
-
-    private record CreateMetadataRequest(
-            long id,
-            @JsonUnwrapped SongMetadataDto metadata
-    ) {
-    }
 }
\ No newline at end of file
@@ -0,0 +1,299 @@
+package audiohub.service;
+
+import audiohub.config.SongServiceProps;
+import audiohub.exception.SongServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Wraps calls to song-service, per operation, in a retry with exponential backoff and jitter,
+ * a circuit breaker and a bulkhead, in that order: backoff doesn't hold a bulkhead slot, and
+ * calls rejected by the circuit breaker or the bulkhead fail right away with
+ * {@link SongServiceUnavailableException} instead of waiting for a read timeout. Only I/O
+ * errors, {@code 429} and {@code 5xx} count as failures and are retried; both operations are
+ * idempotent. Deletes can also be hedged.
+ * <p>
+ * State is published as {@code resilience4j.circuitbreaker.*}, {@code resilience4j.bulkhead.*}
+ * and {@code resilience4j.retry.*}, tagged with the operation's name.
+ */
+@Slf4j
+@Component
+public class SongServiceResilience {
+
+    private static final String NAME_PREFIX = "song-service-";
+    private static final Duration BULKHEAD_FULL_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final Map<Operation, CircuitBreaker> circuitBreakers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Bulkhead> bulkheads = new EnumMap<>(Operation.class);
+    private final Map<Operation, Retry> retries = new EnumMap<>(Operation.class);
+    private final SongServiceProps.Hedging deleteHedging;
+    private final Duration openDuration;
+    private final SimpleAsyncTaskExecutor hedgingExecutor;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    public SongServiceResilience(SongServiceProps props, MeterRegistry meterRegistry,
+                                 SimpleAsyncTaskExecutorBuilder taskExecutorBuilder) {
+        SongServiceProps.Resilience resilience = props.resilience();
+        this.deleteHedging = resilience.deleteHedging();
+        this.openDuration = resilience.circuitBreaker().openDuration();
+
+        CircuitBreakerRegistry circuitBreakerRegistry =
+                CircuitBreakerRegistry.of(circuitBreakerConfig(resilience.circuitBreaker()));
+        RetryRegistry retryRegistry = RetryRegistry.of(retryConfig(resilience.retry()));
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+        for (Operation operation : Operation.values()) {
+            String name = NAME_PREFIX + operation.tagValue;
+            SongServiceProps.Bulkhead bulkhead = operation == Operation.CREATE
+                    ? resilience.createBulkhead()
+                    : resilience.deleteBulkhead();
+
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+            circuitBreaker.getEventPublisher().onStateTransition(event ->
+                    log.warn("Circuit breaker {}: {}", name, event.getStateTransition()));
+            Retry retry = retryRegistry.retry(name);
+            retry.getEventPublisher().onRetry(event ->
+                    log.warn("Retrying {} (attempt {}) in {}: {}", name, event.getNumberOfRetryAttempts() + 1,
+                            event.getWaitInterval(), event.getLastThrowable().toString()));
+
+            circuitBreakers.put(operation, circuitBreaker);
+            retries.put(operation, retry);
+            bulkheads.put(operation, bulkheadRegistry.bulkhead(name, bulkheadConfig(bulkhead)));
+        }
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retryRegistry).bindTo(meterRegistry);
+
+        // Virtual threads only when spring.threads.virtual.enabled is set; the delete bulkhead bounds the thread count
+        this.hedgingExecutor = taskExecutorBuilder
+                .threadNamePrefix("song-service-hedge-")
+                // Both requests belong to the caller's trace
+                .taskDecorator(new ContextPropagatingTaskDecorator())
+                .build();
+        this.hedgesSent = Counter.builder("song.service.delete.hedges")
+                .description("Second delete requests sent because the first was slower than the hedging delay")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("song.service.delete.hedge.wins")
+                .description("Hedged delete requests that answered before the first one")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Calls made inside a transaction are neither retried nor hedged: backoff and extra
+     * requests would hold its connection and locks for as long as they take.
+     */
+    public <T> T execute(Operation operation, Supplier<T> call) {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        Bulkhead bulkhead = bulkheads.get(operation);
+        Supplier<T> attempt = operation == Operation.DELETE && deleteHedging.enabled() && !inTransaction
+                ? () -> hedged(bulkhead, call)
+                : Bulkhead.decorateSupplier(bulkhead, call);
+        Supplier<T> decorated = CircuitBreaker.decorateSupplier(circuitBreakers.get(operation), attempt);
+        if (!inTransaction) {
+            decorated = Retry.decorateSupplier(retries.get(operation), decorated);
+        }
+
+        try {
+            return decorated.get();
+        } catch (CallNotPermittedException e) {
+            throw new SongServiceUnavailableException(
+                    "Song service is unavailable, %s calls are suspended".formatted(operation.tagValue),
+                    openDuration, e);
+        } catch (BulkheadFullException e) {
+            throw new SongServiceUnavailableException(
+                    "Too many concurrent %s calls to song-service".formatted(operation.tagValue),
+                    BULKHEAD_FULL_RETRY_AFTER, e);
+        }
+    }
+
+    /**
+     * Whether the operation's circuit breaker lets calls through; background work can wait
+     * instead of failing call after call.
+     */
+    public boolean isAvailable(Operation operation) {
+        CircuitBreaker.State state = circuitBreakers.get(operation).getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    /**
+     * Sends a second request when the first hasn't answered within the hedging delay, and
+     * returns whichever succeeds first. Each request holds its own bulkhead permit until it
+     * finishes, so the slower one, left to run on its own, still counts against the limit;
+     * no hedge is sent when the bulkhead has no permit to spare.
+     */
+    private <T> T hedged(Bulkhead bulkhead, Supplier<T> call) {
+        bulkhead.acquirePermission();
+        CompletableFuture<T> primary = submitHolding(bulkhead, call);
+        try {
+            return primary.get(deleteHedging.delay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than the hedging delay: hedge it if the bulkhead allows
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for song-service", e);
+        }
+
+        if (!bulkhead.tryAcquirePermission()) {
+            return await(primary);
+        }
+        hedgesSent.increment();
+        CompletableFuture<T> hedge = submitHolding(bulkhead, call);
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((result, error) -> settle(first, result, error, failures, false));
+        hedge.whenComplete((result, error) -> settle(first, result, error, failures, true));
+
+        return await(first);
+    }
+
+    /**
+     * Runs the call with a bulkhead permit the caller has already acquired, releasing it when
+     * the call finishes.
+     */
+    private <T> CompletableFuture<T> submitHolding(Bulkhead bulkhead, Supplier<T> call) {
+        try {
+            return hedgingExecutor.submitCompletable(() -> {
+                try {
+                    return call.get();
+                } finally {
+                    bulkhead.onComplete();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.releasePermission();
+            throw e;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    private <T> void settle(CompletableFuture<T> first, T result, Throwable error, AtomicInteger failures,
+                            boolean hedge) {
+        if (error == null) {
+            if (first.complete(result) && hedge) {
+                hedgesWon.increment();
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new IllegalStateException(error);
+    }
+
+    /**
+     * Failures that say nothing about the request itself: the call may succeed when repeated.
+     */
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof ResourceAccessException) {
+            return true;
+        }
+        return error instanceof HttpStatusCodeException statusError
+                && (statusError.getStatusCode().is5xxServerError()
+                || statusError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    private static CircuitBreakerConfig circuitBreakerConfig(SongServiceProps.CircuitBreaker props) {
+        return CircuitBreakerConfig.custom()
+                .failureRateThreshold(props.failureRateThreshold())
+                .slowCallRateThreshold(props.slowCallRateThreshold())
+                .slowCallDurationThreshold(props.slowCallThreshold())
+                .slidingWindowSize(props.slidingWindowSize())
+                .minimumNumberOfCalls(props.minimumNumberOfCalls())
+                .waitDurationInOpenState(props.openDuration())
+                .permittedNumberOfCallsInHalfOpenState(props.halfOpenCalls())
+                // So that isAvailable() turns true again without a call having to be rejected first
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(SongServiceResilience::isTransient)
+                .build();
+    }
+
+    private static RetryConfig retryConfig(SongServiceProps.Retry props) {
+        return RetryConfig.custom()
+                .maxAttempts(props.maxAttempts())
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                        props.initialBackoff(), 2.0, props.jitter(), props.maxBackoff()))
+                .retryOnException(SongServiceResilience::isTransient)
+                .build();
+    }
+
+    private static BulkheadConfig bulkheadConfig(SongServiceProps.Bulkhead props) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(props.maxConcurrentCalls())
+                .maxWaitDuration(props.maxWait())
+                .build();
+    }
+
+    public enum Operation {
+        /**
+         * {@code POST /songs/batch}, called by the outbox dispatcher.
+         */
+        CREATE("create"),
+        /**
+         * {@code POST /songs/bulk-delete}, called once resources are deleted.
+         */
+        DELETE("delete");
+
+        private final String tagValue;
+
+        Operation(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package audiohub.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Uploaded audio spooled to a temporary file, with its SHA-256 checksum in lowercase hex.
+ * Closing it removes the file.
+ */
+@Slf4j
+public record SpooledAudio(Path file, long size, String checksum) implements AutoCloseable {
+
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled upload {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package audiohub.service;
+
+import java.time.Instant;
+
+/**
+ * A resource as needed to answer a download. Content never changes after upload, so the
+ * SHA-256 checksum recorded at upload time doubles as a strong ETag.
+ */
+public record StoredResource(
+        Long id,
+        String storageKey,
+        long size,
+        String checksum,
+        Instant uploadTime
+) {
+
+    public String eTag() {
+        return "\"" + checksum + "\"";
+    }
+}
@@ -0,0 +1,182 @@
+package audiohub.service;
+
+import audiohub.config.UploadAdmissionProps;
+import audiohub.exception.UploadRejectedException;
+import audiohub.exception.UploadRejectedException.Reason;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for uploads. Before its body is read, an upload request, single or bulk,
+ * reserves its declared size from a byte budget. Requests that don't fit wait in a bounded
+ * queue, and are turned away with {@link UploadRejectedException} when the queue is full or
+ * the wait times out, so overload costs a fast rejection rather than disk, heap and CPU.
+ * Metadata extraction, the CPU-heavy stage, has its own limit, shared by single and bulk
+ * uploads.
+ */
+@Slf4j
+@Component
+public class UploadAdmission {
+
+    private static final long BYTES_PER_PERMIT = 1024; // int permits would cap the budget at 2 GiB
+
+    private final UploadAdmissionProps props;
+    private final int budgetPermits;
+    private final Semaphore budget;
+    private final int maxExtractions;
+    private final Semaphore extractions;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicInteger extractionsQueued = new AtomicInteger();
+    private final Timer queueWait;
+
+    public UploadAdmission(UploadAdmissionProps props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.budgetPermits = (int) Math.max(1, props.maxBytes().toBytes() / BYTES_PER_PERMIT);
+        // Fair, so a large upload isn't overtaken by smaller ones for as long as they keep coming
+        this.budget = new Semaphore(budgetPermits, true);
+        this.maxExtractions = props.maxExtractions() > 0
+                ? props.maxExtractions()
+                : Runtime.getRuntime().availableProcessors();
+        this.extractions = new Semaphore(maxExtractions, true);
+
+        this.queueWait = Timer.builder("resource.upload.admission.wait")
+                .description("Time uploads waited for admission, including ones admitted right away")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("resource.upload.admission.queued", queued, AtomicInteger::get)
+                .description("Uploads waiting for admission")
+                .register(meterRegistry);
+        Gauge.builder("resource.upload.admission.active", admitted, AtomicInteger::get)
+                .description("Admitted uploads in progress")
+                .register(meterRegistry);
+        Gauge.builder("resource.upload.admission.reserved", this, UploadAdmission::reservedBytes)
+                .description("Bytes reserved by admitted uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("resource.upload.extraction.queued", extractionsQueued, AtomicInteger::get)
+                .description("Uploads waiting to have their metadata extracted")
+                .register(meterRegistry);
+        Gauge.builder("resource.upload.extraction.active", this, UploadAdmission::activeExtractions)
+                .description("Metadata extractions in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves {@code declaredSize} bytes, or the maximum upload size when the request has no
+     * (usable) {@code Content-Length}. The returned permit releases them when closed.
+     */
+    public Permit admit(Long declaredSize) {
+        return admit(declaredSize, Mp3ResourceService.MAX_AUDIO_SIZE_BYTES);
+    }
+
+    /**
+     * Same as {@link #admit(Long)} for a multipart bulk upload, whose size is only bounded by
+     * the whole budget: without a (usable) {@code Content-Length} it reserves all of it.
+     */
+    public Permit admitBulk(Long declaredSize) {
+        return admit(declaredSize, props.maxBytes().toBytes());
+    }
+
+    private Permit admit(Long declaredSize, long maxSize) {
+        int permits = permitsFor(declaredSize, maxSize);
+        long start = System.nanoTime();
+
+        if (!tryAcquire(permits, 0)) {
+            if (queued.incrementAndGet() > props.queueCapacity()) {
+                queued.decrementAndGet();
+                log.warn("Rejecting upload of {} bytes, admission queue is full", declaredSize);
+                throw new UploadRejectedException("Too many uploads in progress, try again later",
+                        Reason.QUEUE_FULL, props.retryAfter());
+            }
+            try {
+                if (!tryAcquire(permits, props.queueTimeout().toNanos())) {
+                    log.warn("Rejecting upload of {} bytes after waiting {} for admission",
+                            declaredSize, props.queueTimeout());
+                    throw new UploadRejectedException("Upload capacity is exhausted, try again later",
+                            Reason.QUEUE_TIMEOUT, props.retryAfter());
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        admitted.incrementAndGet();
+        return new Permit(permits);
+    }
+
+    /**
+     * Runs an extraction once fewer than {@code upload-admission.max-extractions} are in
+     * progress. Waits without a limit: the number of waiting uploads is already bounded by
+     * admission and by the bulk upload workers.
+     */
+    public <T> T extract(Supplier<T> extraction) {
+        extractionsQueued.incrementAndGet();
+        try {
+            extractions.acquireUninterruptibly();
+        } finally {
+            extractionsQueued.decrementAndGet();
+        }
+
+        try {
+            return extraction.get();
+        } finally {
+            extractions.release();
+        }
+    }
+
+    private int permitsFor(Long declaredSize, long maxSize) {
+        long bytes = declaredSize != null && declaredSize > 0
+                ? Math.min(declaredSize, maxSize)
+                : maxSize;
+        long permits = (bytes + BYTES_PER_PERMIT - 1) / BYTES_PER_PERMIT;
+        // An upload larger than the whole budget is admitted on its own
+        return (int) Math.min(permits, budgetPermits);
+    }
+
+    private boolean tryAcquire(int permits, long timeoutNanos) {
+        try {
+            return budget.tryAcquire(permits, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UploadRejectedException("Upload was interrupted while waiting for admission",
+                    Reason.QUEUE_TIMEOUT, props.retryAfter());
+        }
+    }
+
+    private double reservedBytes() {
+        return (double) (budgetPermits - budget.availablePermits()) * BYTES_PER_PERMIT;
+    }
+
+    private double activeExtractions() {
+        return maxExtractions - extractions.availablePermits();
+    }
+
+    public final class Permit implements AutoCloseable {
+
+        private final int permits;
+        private boolean released;
+
+        private Permit(int permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                admitted.decrementAndGet();
+                budget.release(permits);
+            }
+        }
+    }
+}
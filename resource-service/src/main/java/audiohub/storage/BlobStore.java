@@ -0,0 +1,30 @@
+package audiohub.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Storage for raw resource bytes. The {@code resources} table keeps only the returned
+ * storage key together with the size and SHA-256 checksum of the content.
+ */
+public interface BlobStore {
+
+    String put(Path source, String checksum);
+
+    /**
+     * Copies {@code length} bytes starting at {@code offset} to {@code out}.
+     * Failures of {@code out} itself are reported as {@link IOException}.
+     */
+    void copyTo(String storageKey, long offset, long length, OutputStream out) throws IOException;
+
+    /**
+     * Deletes a blob no resource references any more. Stores may defer the actual removal.
+     */
+    void delete(String storageKey);
+
+    default void deleteAll(Collection<String> storageKeys) {
+        storageKeys.forEach(this::delete);
+    }
+}
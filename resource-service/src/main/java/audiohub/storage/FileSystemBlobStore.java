@@ -0,0 +1,179 @@
+package audiohub.storage;
+
+import audiohub.config.BlobStoreProps;
+import audiohub.exception.BlobStoreException;
+import audiohub.repository.ResourceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store on the local filesystem: the storage key is the SHA-256 checksum
+ * and the file lives at {@code <root>/<aa>/<bb>/<checksum>}. Identical uploads share a file,
+ * so callers must only delete a key once no resource references it.
+ * <p>
+ * Files don't take part in the database transaction, so they are only removed once its
+ * outcome is known: after a delete commits, or after an upload that wrote the file rolls
+ * back. Removal runs on its own thread and transaction, takes the content lock that uploads
+ * and deletes hold, and skips files a resource references by then, so it can't race with an
+ * upload of the same content.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "filesystem")
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern CHECKSUM_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final Path root;
+    private final ResourceRepository resourceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService removalExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("blob-removal").daemon().factory());
+
+    public FileSystemBlobStore(BlobStoreProps props, ResourceRepository resourceRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.root = props.filesystemRoot().toAbsolutePath().normalize();
+        this.resourceRepository = resourceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String put(Path source, String checksum) {
+        Path target = resolve(checksum);
+        if (Files.exists(target)) {
+            log.debug("Blob {} already stored, skipping write", checksum);
+            return checksum;
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+            Path tempFile = Files.createTempFile(target.getParent(), checksum, ".tmp");
+            try {
+                Files.copy(source, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            removeAfterCompletion(checksum, false);
+            return checksum;
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to store blob " + checksum, e);
+        }
+    }
+
+    @Override
+    public void copyTo(String storageKey, long offset, long length, OutputStream out) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(resolve(storageKey), StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to open blob " + storageKey, e);
+        }
+
+        try (channel) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    throw new BlobStoreException(
+                            "Blob %s ended %d bytes early".formatted(storageKey, remaining)
+                    );
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    /**
+     * Removes the file once the surrounding transaction commits, or right away without one.
+     */
+    @Override
+    public void delete(String storageKey) {
+        resolve(storageKey);
+        removeAfterCompletion(storageKey, true);
+    }
+
+    @PreDestroy
+    void finishRemovals() throws InterruptedException {
+        removalExecutor.shutdown();
+        if (!removalExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Blob removals still pending at shutdown, their files are left behind");
+        }
+    }
+
+    private void removeAfterCompletion(String checksum, boolean onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                removalExecutor.execute(() -> removeIfUnreferenced(checksum));
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    // The completing transaction still holds its connection, so don't borrow another here
+                    removalExecutor.execute(() -> removeIfUnreferenced(checksum));
+                }
+            }
+        });
+    }
+
+    private void removeIfUnreferenced(String checksum) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                resourceRepository.lockContents(new Long[]{ResourceRepository.lockKey(checksum)});
+                if (resourceRepository.findReferencedStorageKeys(new String[]{checksum}).isEmpty()) {
+                    deleteFile(checksum);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to remove blob {}, its file is left behind: {}", checksum, e.getMessage());
+        }
+    }
+
+    private void deleteFile(String checksum) {
+        try {
+            if (Files.deleteIfExists(resolve(checksum))) {
+                log.debug("Removed blob {}", checksum);
+            }
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to delete blob " + checksum, e);
+        }
+    }
+
+    private Path resolve(String checksum) {
+        if (!CHECKSUM_PATTERN.matcher(checksum).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + checksum);
+        }
+
+        return root.resolve(checksum.substring(0, 2))
+                .resolve(checksum.substring(2, 4))
+                .resolve(checksum);
+    }
+}
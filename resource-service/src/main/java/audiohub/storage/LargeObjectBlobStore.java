@@ -0,0 +1,136 @@
+package audiohub.storage;
+
+import audiohub.config.BlobStoreProps;
+import audiohub.exception.BlobStoreException;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.largeobject.LargeObject;
+import org.postgresql.largeobject.LargeObjectManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stores blobs as Postgres large objects; the storage key is the large object OID.
+ * Large objects can only be accessed inside a transaction, so every operation joins
+ * or opens one on the shared data source.
+ * <p>
+ * Unlinking removes every page of the object, which takes a while for big blobs. With
+ * {@code blob-store.reclaimer.enabled}, deletes therefore only record the object in
+ * {@code released_large_objects}, as part of their transaction, and leave unlinking it to
+ * {@link audiohub.service.LargeObjectReclaimer}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "database", matchIfMissing = true)
+public class LargeObjectBlobStore implements BlobStore {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final DataSource dataSource;
+    private final BlobStoreProps props;
+
+    @Override
+    @Transactional
+    public String put(Path source, String checksum) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            LargeObjectManager largeObjects = largeObjects(connection);
+            long oid = largeObjects.createLO(LargeObjectManager.READWRITE);
+
+            try (LargeObject largeObject = largeObjects.open(oid, LargeObjectManager.WRITE);
+                 InputStream in = Files.newInputStream(source)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    largeObject.write(buffer, 0, read);
+                }
+            }
+
+            return Long.toString(oid);
+        } catch (SQLException | IOException e) {
+            throw new BlobStoreException("Failed to store large object for checksum " + checksum, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void copyTo(String storageKey, long offset, long length, OutputStream out) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (LargeObject largeObject = largeObjects(connection).open(oid(storageKey), LargeObjectManager.READ)) {
+            largeObject.seek64(offset, LargeObject.SEEK_SET);
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = largeObject.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read <= 0) {
+                    throw new BlobStoreException(
+                            "Large object %s ended %d bytes early".formatted(storageKey, remaining)
+                    );
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        } catch (SQLException e) {
+            throw new BlobStoreException("Failed to read large object " + storageKey, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void delete(String storageKey) {
+        deleteAll(List.of(storageKey));
+    }
+
+    /**
+     * Unlinks, or releases to the reclaimer, all large objects with one statement instead
+     * of a round trip per object.
+     */
+    @Override
+    @Transactional
+    public void deleteAll(Collection<String> storageKeys) {
+        if (storageKeys.isEmpty()) {
+            return;
+        }
+
+        String sql = props.reclaimer().enabled()
+                ? "INSERT INTO released_large_objects (oid) SELECT unnest(?) ON CONFLICT DO NOTHING"
+                : "SELECT count(lo_unlink(CAST(lo AS oid))) FROM unnest(?) AS lo";
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            Object[] oids = storageKeys.stream().map(this::oid).toArray();
+            statement.setArray(1, connection.createArrayOf("bigint", oids));
+            statement.execute();
+        } catch (SQLException e) {
+            throw new BlobStoreException("Failed to delete %d large objects".formatted(storageKeys.size()), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private LargeObjectManager largeObjects(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getLargeObjectAPI();
+    }
+
+    private long oid(String storageKey) {
+        return Long.parseLong(storageKey);
+    }
+}
@@ -0,0 +1,71 @@
+package audiohub.cache;
+
+import audiohub.config.SongCacheProps;
+import audiohub.dto.SongDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link SongCache} for the {@code reactive} profile. Loads run as futures in the cache, so
+ * concurrent misses for the same ID share one query without blocking, and an eviction
+ * drops an in-flight load instead of letting it cache a deleted song.
+ * <p>
+ * Only the {@code local} mode is supported.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveSongCache {
+
+    private final AsyncCache<Long, SongDto> cache;
+
+    public ReactiveSongCache(AsyncCache<Long, SongDto> cache, SongCacheProps props) {
+        if (props.mode() != SongCacheProps.Mode.LOCAL) {
+            throw new IllegalStateException(
+                    "song-cache.mode=%s is not supported with the reactive profile, use local".formatted(props.mode())
+            );
+        }
+        this.cache = cache;
+    }
+
+    /**
+     * Completes empty if the loader finds no song. Cancelling the returned {@link Mono}
+     * doesn't cancel a load other requests may be waiting for.
+     */
+    public Mono<SongDto> get(Long id, Function<Long, Mono<SongDto>> loader) {
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    /**
+     * Returns the cached songs and loads all misses with one call to {@code loader}.
+     * IDs the loader doesn't return are absent from the result. Misses aren't cached, and
+     * loads still in flight count as misses: a bulk load is put once it completes, which
+     * would overwrite an eviction made meanwhile.
+     */
+    public Mono<Map<Long, SongDto>> getAll(Collection<Long> ids, Function<Set<Long>, Flux<SongDto>> loader) {
+        return Mono.defer(() -> {
+            Map<Long, SongDto> cached = cache.synchronous().getAllPresent(ids);
+            Set<Long> missing = ids.stream()
+                    .filter(id -> !cached.containsKey(id))
+                    .collect(Collectors.toSet());
+            if (missing.isEmpty()) {
+                return Mono.just(cached);
+            }
+            return loader.apply(missing)
+                    .collectMap(SongDto::id, Function.identity(), () -> new HashMap<>(cached));
+        });
+    }
+
+    public void evict(Collection<Long> ids) {
+        cache.synchronous().invalidateAll(ids);
+    }
+}
@@ -0,0 +1,97 @@
+package audiohub.cache;
+
+import audiohub.config.SongCacheProps;
+import audiohub.dto.SongDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of song metadata. Songs never change once created, so entries only
+ * leave the cache when they are deleted, evicted by size or expire.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class SongCache {
+
+    static final String INVALIDATION_CHANNEL = "song_cache_invalidation";
+
+    // NOTIFY payloads are limited to 8000 bytes
+    private static final int MAX_IDS_PER_NOTIFICATION = 400;
+
+    private final Cache<Long, SongDto> cache;
+    private final SongCacheProps props;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Concurrent misses for the same ID share one load, and an eviction waits for an
+     * in-flight load, so a delete can't be overwritten by a stale read.
+     */
+    public Optional<SongDto> get(Long id, Function<Long, Optional<SongDto>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Returns the cached songs and loads all misses with one call to {@code loader}.
+     * IDs the loader doesn't return are absent from the result. Misses aren't cached: a bulk
+     * load is put after it returns, which would overwrite an eviction made meanwhile.
+     */
+    public Map<Long, SongDto> getAll(Collection<Long> ids, Function<Set<Long>, Collection<SongDto>> loader) {
+        Map<Long, SongDto> songs = new HashMap<>(cache.getAllPresent(ids));
+        Set<Long> missing = ids.stream()
+                .filter(id -> !songs.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            loader.apply(missing).forEach(song -> songs.put(song.id(), song));
+        }
+        return songs;
+    }
+
+    public void evict(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        cache.invalidateAll(ids);
+        if (props.mode() == SongCacheProps.Mode.NEAR) {
+            publishInvalidation(ids);
+        }
+    }
+
+    void evictLocally(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    void clearLocally() {
+        cache.invalidateAll();
+    }
+
+    private void publishInvalidation(Collection<Long> ids) {
+        List<Long> idList = List.copyOf(ids);
+        try {
+            for (int from = 0; from < idList.size(); from += MAX_IDS_PER_NOTIFICATION) {
+                String payload = idList.subList(from, Math.min(from + MAX_IDS_PER_NOTIFICATION, idList.size()))
+                        .stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(","));
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class, INVALIDATION_CHANNEL, payload);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish song cache invalidation for IDs {}", ids, e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package audiohub.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Near-cache mode: evicts songs deleted through other instances. Listens on a dedicated
+ * connection outside the pool, and clears the whole cache after reconnecting, since
+ * notifications sent while disconnected are lost.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "song-cache", name = "mode", havingValue = "near")
+public class SongCacheInvalidationListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final SongCache songCache;
+    private final DataSourceProperties dataSourceProperties;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("song-cache-invalidation")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (isRunning()) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + SongCache.INVALIDATION_CHANNEL);
+                }
+                if (reconnecting) {
+                    songCache.clearLocally();
+                }
+                log.info("Listening for song cache invalidations");
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (isRunning()) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        Arrays.stream(notifications).forEach(this::evict);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!isRunning()) {
+                    return;
+                }
+                log.warn("Song cache invalidation listener disconnected, reconnecting in {} ms: {}",
+                        RECONNECT_DELAY_MILLIS, e.getMessage());
+                reconnecting = true;
+                if (!sleep(RECONNECT_DELAY_MILLIS)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void evict(PGNotification notification) {
+        try {
+            List<Long> ids = Arrays.stream(notification.getParameter().split(","))
+                    .map(Long::valueOf)
+                    .toList();
+            songCache.evictLocally(ids);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed song cache invalidation: {}", notification.getParameter());
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package audiohub.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "bulk-delete")
+public record BulkDeleteProps(
+
+        @Min(value = 1, message = "Bulk delete max IDs must be positive")
+        int maxIds,
+
+        @Min(value = 1, message = "Bulk delete chunk size must be positive")
+        int chunkSize
+) {
+}
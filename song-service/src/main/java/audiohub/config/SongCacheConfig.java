@@ -0,0 +1,46 @@
+package audiohub.config;
+
+import audiohub.dto.SongDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+public class SongCacheConfig {
+
+    public static final String SONG_CACHE_NAME = "songs";
+
+    /**
+     * Hit, miss, eviction and size metrics are published as {@code cache.*} tagged {@code cache=songs}.
+     */
+    @Bean
+    @Profile("!reactive")
+    public Cache<Long, SongDto> songCaffeineCache(SongCacheProps props, MeterRegistry meterRegistry) {
+        Cache<Long, SongDto> cache = newBuilder(props).build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, SONG_CACHE_NAME);
+    }
+
+    /**
+     * Same cache for the {@code reactive} profile, loading asynchronously.
+     */
+    @Bean
+    @Profile("reactive")
+    public AsyncCache<Long, SongDto> songAsyncCaffeineCache(SongCacheProps props, MeterRegistry meterRegistry) {
+        AsyncCache<Long, SongDto> cache = newBuilder(props).buildAsync();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, SONG_CACHE_NAME);
+    }
+
+    private static Caffeine<Object, Object> newBuilder(SongCacheProps props) {
+        return Caffeine.newBuilder()
+                .maximumSize(props.maximumSize())
+                .expireAfterWrite(props.timeToLive())
+                .recordStats();
+    }
+}
@@ -0,0 +1,36 @@
+package audiohub.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "song-cache")
+public record SongCacheProps(
+
+        @NotNull(message = "Song cache mode must not be null")
+        Mode mode,
+
+        @Min(value = 0, message = "Song cache maximum size must not be negative")
+        long maximumSize,
+
+        @NotNull(message = "Song cache time to live must not be null")
+        Duration timeToLive
+) {
+
+    public enum Mode {
+        /**
+         * Each instance caches on its own; entries deleted through another instance
+         * stay visible here until they expire.
+         */
+        LOCAL,
+        /**
+         * Instances additionally broadcast deletes over Postgres LISTEN/NOTIFY and
+         * evict them from their own cache.
+         */
+        NEAR
+    }
+}
@@ -0,0 +1,21 @@
+package audiohub.config;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Spans go to the OTLP endpoint in {@code management.otlp.tracing.endpoint} when it is set,
+ * and with the {@code trace-file} profile also to {@code tracing.file} (see logback-spring.xml).
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @Profile("trace-file")
+    public SpanExporter fileSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
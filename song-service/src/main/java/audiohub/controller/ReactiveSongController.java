@@ -0,0 +1,114 @@
+package audiohub.controller;
+
+import audiohub.dto.BatchCreateSongsResponse;
+import audiohub.dto.BulkDeleteResponse;
+import audiohub.dto.CreateSongResponse;
+import audiohub.dto.DeleteSongsResponse;
+import audiohub.dto.SongDto;
+import audiohub.dto.SongPage;
+import audiohub.dto.SongSearchCriteria;
+import audiohub.service.ReactiveSongService;
+import audiohub.service.SongSearch;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The {@code /songs} API of {@link SongController} on WebFlux, for the {@code reactive}
+ * profile. Requests and responses are the same in both.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/songs")
+public class ReactiveSongController {
+
+    private final ReactiveSongService songService;
+
+    @PostMapping
+    public Mono<ResponseEntity<CreateSongResponse>> createSong(@Valid @RequestBody SongDto songDto) {
+        return songService.createSong(songDto)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchCreateSongsResponse>> createSongs(@RequestBody List<SongDto> songs) {
+        return songService.createSongs(songs)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Requests whose {@code If-None-Match} matches the ETag are answered with 304 and no body.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<SongDto>> getSong(@PathVariable String id) {
+        return songService.getSong(id)
+                .map(song -> ResponseEntity.ok()
+                        .eTag(SongController.eTag(song))
+                        .cacheControl(SongController.SONG_CACHE_CONTROL)
+                        .body(song));
+    }
+
+    /**
+     * Lists songs matching the filters, a page at a time; see {@link SongSearchCriteria}.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<SongPage>> searchSongs(@Valid SongSearchCriteria criteria) {
+        return Mono.fromCallable(() -> SongSearch.of(criteria))
+                .flatMap(songService::searchSongs)
+                .map(page -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(page));
+    }
+
+    /**
+     * Returns the songs that exist for the given IDs, in request order.
+     */
+    @GetMapping(params = "id")
+    public Mono<ResponseEntity<List<SongDto>>> getSongs(@RequestParam("id") String idCsv) {
+        return songService.getSongs(idCsv)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Same as {@code GET /songs?id=...} for lists too long for a query string.
+     */
+    @PostMapping("/lookup")
+    public Mono<ResponseEntity<List<SongDto>>> lookupSongs(@RequestBody List<Long> ids) {
+        return songService.getSongs(ids)
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping
+    public Mono<ResponseEntity<DeleteSongsResponse>> deleteSongs(@RequestParam("id") String idCsv) {
+        return songService.deleteSongs(idCsv)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Deletes many songs at once, with IDs separated by commas or whitespace (e.g. one per
+     * line) in the body.
+     */
+    @PostMapping(path = "/bulk-delete", consumes = {MediaType.TEXT_PLAIN_VALUE, "text/csv"})
+    public Mono<ResponseEntity<BulkDeleteResponse>> deleteSongsBulk(
+            @RequestBody(required = false) Flux<DataBuffer> idList
+    ) {
+        return songService.deleteSongs(idList)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -1,12 +1,21 @@
 package audiohub.controller;
 
+import audiohub.dto.BatchCreateSongsResponse;
+import audiohub.dto.BulkDeleteResponse;
 import audiohub.dto.CreateSongResponse;
 import audiohub.dto.DeleteSongsResponse;
 import audiohub.dto.SongDto;
+import audiohub.dto.SongSearchCriteria;
+import audiohub.service.SongSearch;
+import audiohub.service.SongSearchService;
 import audiohub.service.SongService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,13 +24,25 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/songs")
 public class SongController {
 
+    // Songs never change, but can be deleted and created again under the same ID
+    static final CacheControl SONG_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
     private final SongService songService;
+    private final SongSearchService songSearchService;
 
     @PostMapping
     public ResponseEntity<CreateSongResponse> createSong(@Valid @RequestBody SongDto songDto) {
@@ -30,11 +51,58 @@ public class SongController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateSongsResponse> createSongs(@RequestBody List<SongDto> songs) {
+        BatchCreateSongsResponse response = songService.createSongs(songs);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Requests whose {@code If-None-Match} matches the ETag are answered with 304 and no body.
+     */
     @GetMapping("/{id}")
     public ResponseEntity<SongDto> getSong(@PathVariable String id) {
         SongDto song = songService.getSong(id);
 
-        return ResponseEntity.ok(song);
+        return ResponseEntity.ok()
+                .eTag(eTag(song))
+                .cacheControl(SONG_CACHE_CONTROL)
+                .body(song);
+    }
+
+    /**
+     * Lists songs matching the filters, a page at a time; see {@link SongSearchCriteria}.
+     * The page is written while it is read from the database.
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> searchSongs(@Valid SongSearchCriteria criteria) {
+        SongSearch search = SongSearch.of(criteria);
+        StreamingResponseBody body = out -> songSearchService.writePage(search, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Returns the songs that exist for the given IDs, in request order.
+     */
+    @GetMapping(params = "id")
+    public ResponseEntity<List<SongDto>> getSongs(@RequestParam("id") String idCsv) {
+        List<SongDto> songs = songService.getSongs(idCsv);
+
+        return ResponseEntity.ok(songs);
+    }
+
+    /**
+     * Same as {@code GET /songs?id=...} for lists too long for a query string.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<SongDto>> lookupSongs(@RequestBody List<Long> ids) {
+        List<SongDto> songs = songService.getSongs(ids);
+
+        return ResponseEntity.ok(songs);
     }
 
     @DeleteMapping
@@ -43,4 +111,22 @@ public class SongController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Deletes many songs at once, with IDs separated by commas or whitespace (e.g. one per
+     * line) in the body.
+     */
+    @PostMapping(path = "/bulk-delete", consumes = {MediaType.TEXT_PLAIN_VALUE, "text/csv"})
+    public ResponseEntity<BulkDeleteResponse> deleteSongsBulk(Reader idList) throws IOException {
+        BulkDeleteResponse response = songService.deleteSongs(idList);
+
+        return ResponseEntity.ok(response);
+    }
+
+    static String eTag(SongDto song) {
+        String content = String.join("\u0000",
+                String.valueOf(song.id()), song.name(), song.artist(), song.album(), song.year(), song.duration());
+
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
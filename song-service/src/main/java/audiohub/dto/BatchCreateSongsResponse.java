@@ -0,0 +1,9 @@
+package audiohub.dto;
+
+import java.util.List;
+
+/**
+ * One result per submitted song, in request order.
+ */
+public record BatchCreateSongsResponse(List<SongCreateResult> results) {
+}
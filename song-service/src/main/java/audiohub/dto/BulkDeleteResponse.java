@@ -0,0 +1,8 @@
+package audiohub.dto;
+
+/**
+ * @param requested distinct IDs in the request
+ * @param deleted   IDs that existed and were deleted
+ */
+public record BulkDeleteResponse(int requested, int deleted) {
+}
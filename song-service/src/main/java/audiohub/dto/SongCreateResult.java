@@ -0,0 +1,16 @@
+package audiohub.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SongCreateResult(
+        Long id,
+        SongCreateStatus status,
+        Map<String, String> details
+) {
+    public SongCreateResult(Long id, SongCreateStatus status) {
+        this(id, status, null);
+    }
+}
@@ -0,0 +1,7 @@
+package audiohub.dto;
+
+public enum SongCreateStatus {
+    CREATED,
+    ALREADY_EXISTS,
+    INVALID
+}
@@ -0,0 +1,12 @@
+package audiohub.dto;
+
+import java.util.List;
+
+/**
+ * A page of {@code GET /songs}; {@code nextCursor} is {@code null} on the last page.
+ */
+public record SongPage(
+        List<SongDto> songs,
+        String nextCursor
+) {
+}
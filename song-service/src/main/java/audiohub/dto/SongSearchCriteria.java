@@ -0,0 +1,36 @@
+package audiohub.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Query parameters of {@code GET /songs}. {@code name} matches a name prefix, {@code q}
+ * finds names containing a similar fragment, ranked by similarity. {@code cursor} is the
+ * {@code nextCursor} of the previous page and must be sent with the same filters.
+ */
+public record SongSearchCriteria(
+
+        @Size(min = 1, max = 100, message = "Artist name must be between 1 and 100 characters")
+        String artist,
+
+        @Size(min = 1, max = 100, message = "Album name must be between 1 and 100 characters")
+        String album,
+
+        @Pattern(regexp = "^(19|20)\\d{2}$", message = "Year must be between 1900 and 2099")
+        String year,
+
+        @Size(min = 1, max = 100, message = "Song name prefix must be between 1 and 100 characters")
+        String name,
+
+        @Size(min = 3, max = 100, message = "Search text must be between 3 and 100 characters")
+        String q,
+
+        String cursor,
+
+        @Min(value = 1, message = "Limit must be between 1 and 500")
+        @Max(value = 500, message = "Limit must be between 1 and 500")
+        Integer limit
+) {
+}
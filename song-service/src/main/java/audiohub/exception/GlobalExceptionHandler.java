@@ -1,27 +1,41 @@
 package audiohub.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private static final String ERRORS_METRIC = "api.errors";
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(SongAlreadyExistsException.class)
     public ResponseEntity<ApiError> handleSongAlreadyExists(SongAlreadyExistsException ex) {
         log.warn("Song already exists: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.CONFLICT,
                 ex.getMessage()
         );
@@ -32,6 +46,7 @@ public class GlobalExceptionHandler {
         log.info("Song not found: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.NOT_FOUND,
                 ex.getMessage()
         );
@@ -42,6 +57,7 @@ public class GlobalExceptionHandler {
         log.warn("Invalid song ID: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 ex.getMessage()
         );
@@ -51,26 +67,26 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiError> handleValidationErrors(MethodArgumentNotValidException ex) {
         log.warn("Validation error: {}", ex.getMessage());
 
-        Map<String, String> details = new HashMap<>();
-
-        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
-            String field = error.getField();
-            String message = error.getDefaultMessage();
-
-            if (details.containsKey(field)) {
-                if (message != null && message.contains("is required")) {
-                    details.put(field, message);
-                }
+        return buildErrorResponse(
+                ex,
+                HttpStatus.BAD_REQUEST,
+                "Validation error",
+                fieldErrorDetails(ex.getBindingResult())
+        );
+    }
 
-            } else {
-                details.put(field, message);
-            }
-        }
+    /**
+     * WebFlux counterpart of {@link MethodArgumentNotValidException}, for the {@code reactive} profile.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiError> handleValidationErrors(WebExchangeBindException ex) {
+        log.warn("Validation error: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 "Validation error",
-                details
+                fieldErrorDetails(ex.getBindingResult())
         );
     }
 
@@ -79,6 +95,7 @@ public class GlobalExceptionHandler {
         log.warn("Invalid request body: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 "Invalid request body"
         );
@@ -94,7 +111,7 @@ public class GlobalExceptionHandler {
                 ex.getName()
         );
 
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, message);
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, message);
     }
 
     @ExceptionHandler(InvalidCsvException.class)
@@ -102,30 +119,127 @@ public class GlobalExceptionHandler {
         log.warn("Invalid CSV: {}", ex.getMessage());
 
         return buildErrorResponse(
+                ex,
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage()
+        );
+    }
+
+    @ExceptionHandler(InvalidBatchException.class)
+    public ResponseEntity<ApiError> handleInvalidBatch(InvalidBatchException ex) {
+        log.warn("Invalid batch: {}", ex.getMessage());
+
+        return buildErrorResponse(
+                ex,
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage()
+        );
+    }
+
+    @ExceptionHandler(InvalidSearchCursorException.class)
+    public ResponseEntity<ApiError> handleInvalidSearchCursor(InvalidSearchCursorException ex) {
+        log.warn("Invalid search cursor: {}", ex.getMessage());
+
+        return buildErrorResponse(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 ex.getMessage()
         );
     }
 
+    /**
+     * WebFlux counterpart of {@link HttpMessageNotReadableException} and parameter type
+     * mismatches, for the {@code reactive} profile.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiError> handleServerWebInput(ServerWebInputException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+
+        MethodParameter parameter = ex.getMethodParameter();
+        boolean body = parameter != null && parameter.hasParameterAnnotation(RequestBody.class);
+
+        return buildErrorResponse(
+                ex,
+                HttpStatus.BAD_REQUEST,
+                body ? "Invalid request body" : ex.getReason()
+        );
+    }
+
+    /**
+     * Unknown routes and unsupported methods or media types under WebFlux ({@code reactive} profile).
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiError> handleResponseStatus(ResponseStatusException ex) {
+        log.warn("Request failed: {}", ex.getMessage());
+
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        if (status == null) {
+            status = HttpStatus.BAD_REQUEST;
+        }
+
+        return buildErrorResponse(
+                ex,
+                status,
+                ex.getReason() == null ? status.getReasonPhrase() : ex.getReason()
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGenericException(Exception ex) {
         log.error("Unexpected error occurred", ex);
 
         return buildErrorResponse(
+                ex,
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 "An unexpected error occurred"
         );
     }
 
-    private ResponseEntity<ApiError> buildErrorResponse(HttpStatus status, String message) {
+    private static Map<String, String> fieldErrorDetails(BindingResult bindingResult) {
+        Map<String, String> details = new HashMap<>();
+
+        for (FieldError error : bindingResult.getFieldErrors()) {
+            String field = error.getField();
+            String message = error.getDefaultMessage();
+
+            if (details.containsKey(field)) {
+                if (message != null && message.contains("is required")) {
+                    details.put(field, message);
+                }
+
+            } else {
+                details.put(field, message);
+            }
+        }
+
+        return details;
+    }
+
+    /**
+     * Counts handled errors by exception type and status; unlike {@code http.server.requests},
+     * this tells apart errors that map to the same status.
+     */
+    private void countError(Exception ex, HttpStatus status) {
+        meterRegistry.counter(ERRORS_METRIC,
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())
+        ).increment();
+    }
+
+    private ResponseEntity<ApiError> buildErrorResponse(Exception ex, HttpStatus status, String message) {
+        countError(ex, status);
+
         return ResponseEntity
                 .status(status)
                 .body(new ApiError(message, String.valueOf(status.value())));
     }
 
-    private ResponseEntity<ApiError> buildErrorResponse(HttpStatus status,
+    private ResponseEntity<ApiError> buildErrorResponse(Exception ex,
+                                                        HttpStatus status,
                                                         String message,
                                                         Map<String, String> details) {
+        countError(ex, status);
+
         return ResponseEntity
                 .status(status)
                 .body(new ApiError(message, details, String.valueOf(status.value())));
@@ -1,6 +1,10 @@
 package audiohub.exception;
 
 public class SongAlreadyExistsException extends RuntimeException {
+    public SongAlreadyExistsException(String message) {
+        super(message);
+    }
+
     public SongAlreadyExistsException(String message, Throwable cause) {
         super(message, cause);
     }
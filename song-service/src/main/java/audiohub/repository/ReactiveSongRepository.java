@@ -0,0 +1,111 @@
+package audiohub.repository;
+
+import audiohub.dto.SongDto;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Song queries of the {@code reactive} profile over R2DBC. Uses the same statements as the
+ * JDBC repositories, with Postgres' {@code $n} bind markers.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveSongRepository {
+
+    private static final String SELECT = "SELECT id, name, artist, album, year, duration FROM songs";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Inserts the songs with multi-row statements, skipping IDs that already exist.
+     *
+     * @return IDs of the rows actually inserted
+     */
+    public Flux<Long> insertIgnoringExisting(List<SongDto> songs) {
+        return Flux.range(0, (songs.size() + SongBatchRepository.ROWS_PER_STATEMENT - 1)
+                        / SongBatchRepository.ROWS_PER_STATEMENT)
+                .map(chunk -> songs.subList(chunk * SongBatchRepository.ROWS_PER_STATEMENT,
+                        Math.min((chunk + 1) * SongBatchRepository.ROWS_PER_STATEMENT, songs.size())))
+                .concatMap(this::insertChunk);
+    }
+
+    public Mono<SongDto> findById(long id) {
+        return databaseClient.sql(SELECT + " WHERE id = $1")
+                .bind(0, id)
+                .map(ReactiveSongRepository::toSong)
+                .one();
+    }
+
+    /**
+     * Loads the songs with a single query, binding the IDs as one array parameter. Missing
+     * IDs are skipped.
+     */
+    public Flux<SongDto> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return databaseClient.sql(SELECT + " WHERE id = ANY($1)")
+                .bind(0, ids.toArray(Long[]::new))
+                .map(ReactiveSongRepository::toSong)
+                .all();
+    }
+
+    public Flux<Long> deleteAndReturnIds(Long[] ids) {
+        return databaseClient.sql("DELETE FROM songs WHERE id = ANY($1) RETURNING id")
+                .bind(0, ids)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+
+    /**
+     * Streams the matching songs of a listing; see {@link SongSearchRepository}.
+     */
+    public Flux<SongSearchHit> search(SongSearchQuery query, int limit) {
+        SongSearchRepository.SearchStatement statement =
+                SongSearchRepository.searchStatement(query, limit, index -> "$" + index);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(statement.sql());
+        List<Object> args = statement.args();
+        for (int i = 0; i < args.size(); i++) {
+            spec = spec.bind(i, args.get(i));
+        }
+
+        return spec.map(row -> {
+            SongDto song = toSong(row);
+            Float score = query.isFuzzy() ? row.get("score", Float.class) : null;
+            return new SongSearchHit(song, SongSearchRepository.position(query, song, score == null ? 0 : score));
+        }).all();
+    }
+
+    private Flux<Long> insertChunk(List<SongDto> chunk) {
+        DatabaseClient.GenericExecuteSpec spec =
+                databaseClient.sql(SongBatchRepository.insertSql(chunk.size(), index -> "$" + index));
+        List<Object> values = SongBatchRepository.bindValues(chunk);
+        for (int i = 0; i < values.size(); i++) {
+            spec = spec.bind(i, values.get(i));
+        }
+
+        return spec.map(row -> row.get("id", Long.class)).all();
+    }
+
+    private static SongDto toSong(Readable row) {
+        return new SongDto(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("artist", String.class),
+                row.get("album", String.class),
+                row.get("year", String.class),
+                row.get("duration", String.class)
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package audiohub.repository;
+
+import audiohub.dto.SongDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class SongBatchRepository {
+
+    // 6 bind parameters per row keeps a chunk well below the 65535 limit of the Postgres protocol
+    static final int ROWS_PER_STATEMENT = 1000;
+    private static final String INSERT_PREFIX = "INSERT INTO songs (id, name, artist, album, year, duration) VALUES ";
+    private static final int COLUMNS = 6;
+    private static final String INSERT_SUFFIX = " ON CONFLICT (id) DO NOTHING RETURNING id";
+    private static final String INSERT_ONE = insertSql(1, index -> "?");
+    private static final String SELECT_BY_IDS =
+            "SELECT id, name, artist, album, year, duration FROM songs WHERE id = ANY(?)";
+
+    static final RowMapper<SongDto> SONG_ROW_MAPPER = (rs, rowNum) -> new SongDto(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("artist"),
+            rs.getString("album"),
+            rs.getString("year"),
+            rs.getString("duration")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the songs with multi-row statements, skipping IDs that already exist.
+     *
+     * @return IDs of the rows actually inserted
+     */
+    public Set<Long> insertIgnoringExisting(List<SongDto> songs) {
+        Set<Long> inserted = new HashSet<>();
+        for (int from = 0; from < songs.size(); from += ROWS_PER_STATEMENT) {
+            List<SongDto> chunk = songs.subList(from, Math.min(from + ROWS_PER_STATEMENT, songs.size()));
+            inserted.addAll(jdbcTemplate.queryForList(insertSql(chunk.size(), index -> "?"), Long.class,
+                    bindValues(chunk).toArray()));
+        }
+        return inserted;
+    }
+
+    /**
+     * Inserts the song unless its ID already exists. A duplicate shows in the result instead
+     * of raising a constraint violation, which would abort a surrounding transaction.
+     *
+     * @return whether the song was inserted
+     */
+    public boolean insertIfAbsent(SongDto song) {
+        return !jdbcTemplate.queryForList(INSERT_ONE, Long.class, bindValues(List.of(song)).toArray()).isEmpty();
+    }
+
+    /**
+     * Loads the songs with a single query; the IDs are bound as one array parameter, so the
+     * statement is the same for any number of IDs. Missing IDs are skipped.
+     */
+    public List<SongDto> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(SELECT_BY_IDS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                SONG_ROW_MAPPER);
+    }
+
+    /**
+     * {@code placeholder} renders the bind marker for the n-th value, starting at 1, so the
+     * statement serves JDBC and R2DBC.
+     */
+    static String insertSql(int rows, IntFunction<String> placeholder) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * COLUMNS * 8 + INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        int index = 0;
+        for (int i = 0; i < rows; i++) {
+            sql.append(i > 0 ? ", (" : "(");
+            for (int column = 0; column < COLUMNS; column++) {
+                if (column > 0) {
+                    sql.append(", ");
+                }
+                sql.append(placeholder.apply(++index));
+            }
+            sql.append(')');
+        }
+        return sql.append(INSERT_SUFFIX).toString();
+    }
+
+    static List<Object> bindValues(List<SongDto> songs) {
+        List<Object> values = new ArrayList<>(songs.size() * COLUMNS);
+        for (SongDto song : songs) {
+            values.add(song.id());
+            values.add(song.name());
+            values.add(song.artist());
+            values.add(song.album());
+            values.add(song.year());
+            values.add(song.duration());
+        }
+        return values;
+    }
+}
@@ -13,6 +13,6 @@ public interface SongRepository extends JpaRepository<SongEntity, Long> {
 
     @Modifying
     @Transactional
-    @Query(value = "DELETE FROM songs WHERE id IN (:ids) RETURNING id", nativeQuery = true)
-    Set<Long> deleteAndReturnIds(@Param("ids") Set<Long> ids);
+    @Query(value = "DELETE FROM songs WHERE id = ANY(:ids) RETURNING id", nativeQuery = true)
+    Set<Long> deleteAndReturnIds(@Param("ids") Long[] ids);
 }
\ No newline at end of file
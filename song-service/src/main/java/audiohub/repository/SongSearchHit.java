@@ -0,0 +1,12 @@
+package audiohub.repository;
+
+import audiohub.dto.SongDto;
+
+/**
+ * A song of a listing with its position for continuing after it.
+ */
+public record SongSearchHit(
+        SongDto song,
+        SongSearchPosition position
+) {
+}
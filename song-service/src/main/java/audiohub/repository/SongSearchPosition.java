@@ -0,0 +1,22 @@
+package audiohub.repository;
+
+/**
+ * Sort key of a song in a listing: (artist, album, name, id) when browsing, (score, id)
+ * when ranking by similarity.
+ */
+public record SongSearchPosition(
+        String artist,
+        String album,
+        String name,
+        float score,
+        long id
+) {
+
+    public static SongSearchPosition browse(String artist, String album, String name, long id) {
+        return new SongSearchPosition(artist, album, name, 0, id);
+    }
+
+    public static SongSearchPosition ranked(float score, long id) {
+        return new SongSearchPosition(null, null, null, score, id);
+    }
+}
@@ -0,0 +1,21 @@
+package audiohub.repository;
+
+/**
+ * Filters of a song listing; {@code null} filters are not applied. With {@code fuzzyName}
+ * set, results are ranked by trigram word similarity to it, otherwise they are listed in
+ * (artist, album, name, id) order. {@code after} is the position of the last song of
+ * the previous page.
+ */
+public record SongSearchQuery(
+        String artist,
+        String album,
+        String year,
+        String namePrefix,
+        String fuzzyName,
+        SongSearchPosition after
+) {
+
+    public boolean isFuzzy() {
+        return fuzzyName != null;
+    }
+}
@@ -0,0 +1,111 @@
+package audiohub.repository;
+
+import audiohub.dto.SongDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Keyset-paginated song listing. Pages continue after the sort key of the previous page's
+ * last row instead of using OFFSET, so every page is an index range scan of {@code limit}
+ * rows no matter how deep it is.
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class SongSearchRepository {
+
+    private static final String SELECT = "SELECT id, name, artist, album, year, duration";
+    private static final String BROWSE_ORDER = " ORDER BY artist, album, name, id";
+    private static final String RANKED_ORDER = " ORDER BY score DESC, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Passes each matching song, with its position for continuing after it, to {@code consumer}
+     * as rows are read.
+     */
+    public void search(SongSearchQuery query, int limit, BiConsumer<SongDto, SongSearchPosition> consumer) {
+        SearchStatement statement = searchStatement(query, limit, index -> "?");
+
+        jdbcTemplate.query(statement.sql(), rs -> {
+            SongDto song = SongBatchRepository.SONG_ROW_MAPPER.mapRow(rs, rs.getRow());
+            consumer.accept(song, position(query, song, query.isFuzzy() ? rs.getFloat("score") : 0));
+        }, statement.args().toArray());
+    }
+
+    /**
+     * Builds the search query; {@code placeholder} renders the bind marker for the n-th
+     * argument, starting at 1, so the same query serves JDBC and R2DBC.
+     */
+    static SearchStatement searchStatement(SongSearchQuery query, int limit, IntFunction<String> placeholder) {
+        SearchStatement statement = new SearchStatement(new StringBuilder(SELECT), new ArrayList<>(), placeholder);
+
+        if (query.isFuzzy()) {
+            // Scores the best-matching part of the name, so a misspelled fragment still finds the song
+            statement.append(", word_similarity(").bind(query.fuzzyName())
+                    .append(", name) AS score FROM songs WHERE ").bind(query.fuzzyName()).append(" <% name");
+        } else {
+            statement.append(" FROM songs WHERE TRUE");
+        }
+
+        appendFilter(statement, " AND artist = ", query.artist());
+        appendFilter(statement, " AND album = ", query.album());
+        appendFilter(statement, " AND year = ", query.year());
+        if (query.namePrefix() != null) {
+            statement.append(" AND name LIKE ").bind(escapeLike(query.namePrefix()) + "%").append(" ESCAPE '\\'");
+        }
+
+        SongSearchPosition after = query.after();
+        if (after != null && query.isFuzzy()) {
+            statement.append(" AND (word_similarity(").bind(query.fuzzyName()).append(", name) < ").bind(after.score())
+                    .append(" OR (word_similarity(").bind(query.fuzzyName()).append(", name) = ").bind(after.score())
+                    .append(" AND id > ").bind(after.id()).append("))");
+        } else if (after != null) {
+            statement.append(" AND (artist, album, name, id) > (").bind(after.artist()).append(", ").bind(after.album())
+                    .append(", ").bind(after.name()).append(", ").bind(after.id()).append(")");
+        }
+
+        return statement.append(query.isFuzzy() ? RANKED_ORDER : BROWSE_ORDER).append(" LIMIT ").bind(limit);
+    }
+
+    static SongSearchPosition position(SongSearchQuery query, SongDto song, float score) {
+        return query.isFuzzy()
+                ? SongSearchPosition.ranked(score, song.id())
+                : SongSearchPosition.browse(song.artist(), song.album(), song.name(), song.id());
+    }
+
+    private static void appendFilter(SearchStatement statement, String condition, String value) {
+        if (value != null) {
+            statement.append(condition).bind(value);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    record SearchStatement(StringBuilder text, List<Object> args, IntFunction<String> placeholder) {
+
+        String sql() {
+            return text.toString();
+        }
+
+        SearchStatement append(String sql) {
+            text.append(sql);
+            return this;
+        }
+
+        SearchStatement bind(Object value) {
+            args.add(value);
+            text.append(placeholder.apply(args.size()));
+            return this;
+        }
+    }
+}
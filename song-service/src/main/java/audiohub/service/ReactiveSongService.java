@@ -0,0 +1,201 @@
+package audiohub.service;
+
+import audiohub.cache.ReactiveSongCache;
+import audiohub.common.IdListParser;
+import audiohub.config.BulkDeleteProps;
+import audiohub.dto.BatchCreateSongsResponse;
+import audiohub.dto.BulkDeleteResponse;
+import audiohub.dto.CreateSongResponse;
+import audiohub.dto.DeleteSongsResponse;
+import audiohub.dto.SongDto;
+import audiohub.dto.SongPage;
+import audiohub.exception.InvalidSongIdException;
+import audiohub.exception.SongAlreadyExistsException;
+import audiohub.exception.SongNotFoundException;
+import audiohub.repository.ReactiveSongRepository;
+import audiohub.repository.SongSearchHit;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link SongService} and {@link SongSearchService} for the {@code reactive} profile: the same
+ * operations, limits and errors over R2DBC, without blocking a thread while the database works.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveSongService {
+
+    private static final String INSERT_OBSERVATION = "songs.insert";
+
+    private final ReactiveSongRepository songRepository;
+    private final Validator validator;
+    private final SongIdParser songIdParser;
+    private final ReactiveSongCache songCache;
+    private final BulkDeleteProps bulkDeleteProps;
+    private final TransactionalOperator transactionalOperator;
+    private final ObservationRegistry observationRegistry;
+
+    public Mono<CreateSongResponse> createSong(SongDto songDto) {
+        return songRepository.insertIgnoringExisting(List.of(songDto))
+                .next()
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Song metadata for resource ID {} already exists", songDto.id());
+                    return new SongAlreadyExistsException(
+                            "Metadata for resource ID=%s already exists".formatted(songDto.id())
+                    );
+                }))
+                .map(id -> {
+                    log.info("Created song metadata for resource ID: {}", id);
+                    return new CreateSongResponse(id);
+                });
+    }
+
+    /**
+     * Same contract as {@link SongService#createSongs}.
+     */
+    public Mono<BatchCreateSongsResponse> createSongs(List<SongDto> songs) {
+        return Mono.fromCallable(() -> SongBatch.validate(songs, validator))
+                .flatMap(batch -> observeInsert(songRepository.insertIgnoringExisting(batch.validSongs())
+                        .collect(Collectors.toCollection(HashSet<Long>::new)))
+                        .as(transactionalOperator::transactional)
+                        .map(inserted -> {
+                            BatchCreateSongsResponse response = batch.complete(inserted);
+                            log.info("Created {} of {} songs in batch", batch.created().size(), batch.size());
+                            return response;
+                        }));
+    }
+
+    public Mono<SongDto> getSong(String id) {
+        return Mono.fromCallable(() -> songIdParser.parsePositiveId(id))
+                .onErrorMap(InvalidSongIdException.class, e -> new InvalidSongIdException(
+                        "Invalid value '%s' for ID. Must be a positive integer".formatted(id)
+                ))
+                .flatMap(songId -> songCache.get(songId, songRepository::findById))
+                .switchIfEmpty(Mono.error(() -> new SongNotFoundException(
+                        "Song metadata for ID=%s not found".formatted(id)
+                )));
+    }
+
+    public Mono<List<SongDto>> getSongs(String idCsv) {
+        return Mono.fromCallable(() -> songIdParser.parsePositiveIds(idCsv))
+                .flatMap(this::findSongs);
+    }
+
+    public Mono<List<SongDto>> getSongs(List<Long> ids) {
+        return Mono.fromCallable(() -> songIdParser.parseLookupIds(ids, SongBatch.MAX_SIZE))
+                .flatMap(this::findSongs);
+    }
+
+    public Mono<DeleteSongsResponse> deleteSongs(String idCsv) {
+        return Mono.fromCallable(() -> songIdParser.parsePositiveIds(idCsv))
+                .flatMap(ids -> ids.isEmpty() ? Mono.just(Set.<Long>of()) : deleteChunk(ids.toArray(Long[]::new)))
+                .map(deletedIds -> {
+                    log.info("Deleted {} song metadata records", deletedIds.size());
+                    return new DeleteSongsResponse(deletedIds);
+                });
+    }
+
+    /**
+     * Same contract as {@link SongService#deleteSongs(java.io.Reader)}; the IDs are parsed
+     * from the body buffers as they arrive.
+     */
+    public Mono<BulkDeleteResponse> deleteSongs(Flux<DataBuffer> idList) {
+        return idList
+                .reduceWith(() -> songIdParser.newIdListParser(bulkDeleteProps.maxIds()), (parser, buffer) -> {
+                    try {
+                        while (buffer.readableByteCount() > 0) {
+                            parser.accept(buffer.read() & 0xff);
+                        }
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                    return parser;
+                })
+                .map(IdListParser::finish)
+                .flatMap(ids -> Flux.range(0, (ids.length + bulkDeleteProps.chunkSize() - 1) / bulkDeleteProps.chunkSize())
+                        .concatMap(chunk -> deleteChunk(Arrays.stream(ids,
+                                        chunk * bulkDeleteProps.chunkSize(),
+                                        Math.min((chunk + 1) * bulkDeleteProps.chunkSize(), ids.length))
+                                .boxed()
+                                .toArray(Long[]::new)))
+                        .reduce(0, (deleted, deletedIds) -> deleted + deletedIds.size())
+                        .map(deleted -> {
+                            log.info("Bulk delete removed {} of {} song metadata records", deleted, ids.length);
+                            return new BulkDeleteResponse(ids.length, deleted);
+                        }));
+    }
+
+    /**
+     * Collects one page, fetching one extra row to tell whether another page follows.
+     */
+    public Mono<SongPage> searchSongs(SongSearch search) {
+        boolean fuzzy = search.query().isFuzzy();
+
+        return songRepository.search(search.query(), search.pageSize() + 1)
+                .collectList()
+                .map(hits -> {
+                    boolean hasMore = hits.size() > search.pageSize();
+                    List<SongSearchHit> page = hasMore ? hits.subList(0, search.pageSize()) : hits;
+
+                    return new SongPage(
+                            page.stream().map(SongSearchHit::song).toList(),
+                            hasMore ? SongSearchCursor.encode(page.getLast().position(), fuzzy) : null
+                    );
+                });
+    }
+
+    /**
+     * Returns the songs that exist, in the order of {@code ids}. Cache misses are loaded
+     * with a single query.
+     */
+    private Mono<List<SongDto>> findSongs(Set<Long> ids) {
+        return songCache.getAll(ids, songRepository::findByIds)
+                .map(songs -> ids.stream()
+                        .map(songs::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
+
+    private Mono<Set<Long>> deleteChunk(Long[] ids) {
+        return songRepository.deleteAndReturnIds(ids)
+                .collect(Collectors.toSet())
+                .doOnNext(songCache::evict);
+    }
+
+    /**
+     * Observes the insert as a child of the request's observation, which WebFlux keeps in
+     * the Reactor context rather than in a thread local.
+     */
+    private <T> Mono<T> observeInsert(Mono<T> insert) {
+        return Mono.deferContextual(context -> {
+            Observation observation = Observation.createNotStarted(INSERT_OBSERVATION, observationRegistry)
+                    .contextualName("insert songs")
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                    .start();
+
+            return insert
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop());
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package audiohub.service;
+
+import audiohub.dto.BatchCreateSongsResponse;
+import audiohub.dto.SongCreateResult;
+import audiohub.dto.SongCreateStatus;
+import audiohub.dto.SongDto;
+import audiohub.exception.InvalidBatchException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A batch create request: each song is validated on its own, the valid ones are inserted
+ * by the caller, and the per-song results are assembled in request order.
+ */
+final class SongBatch {
+
+    static final int MAX_SIZE = 1000;
+
+    private final List<SongDto> songs;
+    private final SongCreateResult[] results;
+    private final List<SongDto> validSongs;
+    private final List<SongDto> created = new ArrayList<>();
+
+    private SongBatch(List<SongDto> songs, Validator validator) {
+        this.songs = songs;
+        this.results = new SongCreateResult[songs.size()];
+        this.validSongs = new ArrayList<>(songs.size());
+
+        for (int i = 0; i < songs.size(); i++) {
+            SongDto song = songs.get(i);
+            Map<String, String> violations = validate(validator, song);
+            if (violations.isEmpty()) {
+                validSongs.add(song);
+            } else {
+                results[i] = new SongCreateResult(song == null ? null : song.id(), SongCreateStatus.INVALID, violations);
+            }
+        }
+    }
+
+    static SongBatch validate(List<SongDto> songs, Validator validator) {
+        if (songs.size() > MAX_SIZE) {
+            throw new InvalidBatchException(
+                    "Batch is too large: received %d songs, maximum allowed is %d".formatted(songs.size(), MAX_SIZE)
+            );
+        }
+
+        return new SongBatch(songs, validator);
+    }
+
+    List<SongDto> validSongs() {
+        return validSongs;
+    }
+
+    /**
+     * Valid songs not in {@code inserted} already existed, in the table or earlier in the
+     * same batch.
+     */
+    BatchCreateSongsResponse complete(Set<Long> inserted) {
+        for (int i = 0; i < songs.size(); i++) {
+            if (results[i] == null) {
+                SongDto song = songs.get(i);
+                boolean isNew = inserted.remove(song.id());
+                if (isNew) {
+                    created.add(song);
+                }
+                results[i] = new SongCreateResult(song.id(),
+                        isNew ? SongCreateStatus.CREATED : SongCreateStatus.ALREADY_EXISTS);
+            }
+        }
+
+        return new BatchCreateSongsResponse(Arrays.asList(results));
+    }
+
+    /**
+     * Songs inserted by this batch, available after {@link #complete}.
+     */
+    List<SongDto> created() {
+        return created;
+    }
+
+    int size() {
+        return songs.size();
+    }
+
+    private static Map<String, String> validate(Validator validator, SongDto song) {
+        if (song == null) {
+            return Map.of("song", "Song is required");
+        }
+
+        Map<String, String> details = new HashMap<>();
+        for (ConstraintViolation<SongDto> violation : validator.validate(song)) {
+            String field = violation.getPropertyPath().toString();
+            String message = violation.getMessage();
+            if (!details.containsKey(field) || message.contains("is required")) {
+                details.put(field, message);
+            }
+        }
+        return details;
+    }
+}
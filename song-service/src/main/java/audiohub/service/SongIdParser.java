@@ -1,10 +1,16 @@
 package audiohub.service;
 
+import audiohub.common.IdListParser;
+import audiohub.exception.InvalidBatchException;
 import audiohub.exception.InvalidCsvException;
 import audiohub.exception.InvalidSongIdException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -35,7 +41,51 @@ public class SongIdParser {
                 .filter(s -> !s.isEmpty())
                 .distinct()
                 .map(this::parsePositiveId)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Reads IDs separated by commas or whitespace (e.g. one per line) as they arrive, without
+     * holding the text in memory.
+     *
+     * @return the IDs sorted and without duplicates
+     */
+    public long[] parsePositiveIds(Reader reader, int maxIds) throws IOException {
+        return newIdListParser(maxIds).parse(reader);
+    }
+
+    /**
+     * A parser for the same format, to feed text that arrives in pieces.
+     */
+    public IdListParser newIdListParser(int maxIds) {
+        return new IdListParser(maxIds, "song", InvalidSongIdException::new, InvalidCsvException::new);
+    }
+
+    /**
+     * Validates the IDs of a lookup request.
+     *
+     * @return the IDs in request order, without duplicates
+     */
+    public Set<Long> parseLookupIds(List<Long> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidBatchException("At least one song ID must be provided");
+        }
+        if (ids.size() > maxIds) {
+            throw new InvalidBatchException(
+                    "Too many IDs: received %d, maximum allowed is %d".formatted(ids.size(), maxIds)
+            );
+        }
+
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids.size());
+        for (Long id : ids) {
+            if (id == null || id <= 0) {
+                throw new InvalidSongIdException(
+                        "Invalid value '%s' for ID. Must be a positive integer".formatted(id)
+                );
+            }
+            uniqueIds.add(id);
+        }
+        return uniqueIds;
     }
 
     public Long parsePositiveId(String id) {
@@ -53,4 +103,4 @@ public class SongIdParser {
             );
         }
     }
-}
\ No newline at end of file
+}
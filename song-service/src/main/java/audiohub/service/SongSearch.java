@@ -0,0 +1,33 @@
+package audiohub.service;
+
+import audiohub.dto.SongSearchCriteria;
+import audiohub.repository.SongSearchPosition;
+import audiohub.repository.SongSearchQuery;
+
+public record SongSearch(
+        SongSearchQuery query,
+        int pageSize
+) {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Validates the criteria before anything is written, so errors still get a regular
+     * error response.
+     */
+    public static SongSearch of(SongSearchCriteria criteria) {
+        boolean fuzzy = criteria.q() != null;
+        SongSearchPosition after = criteria.cursor() == null ? null : SongSearchCursor.decode(criteria.cursor(), fuzzy);
+
+        SongSearchQuery query = new SongSearchQuery(
+                criteria.artist(),
+                criteria.album(),
+                criteria.year(),
+                criteria.name(),
+                criteria.q(),
+                after
+        );
+
+        return new SongSearch(query, criteria.limit() == null ? DEFAULT_PAGE_SIZE : criteria.limit());
+    }
+}
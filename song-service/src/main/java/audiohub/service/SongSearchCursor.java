@@ -0,0 +1,53 @@
+package audiohub.service;
+
+import audiohub.exception.InvalidSearchCursorException;
+import audiohub.repository.SongSearchPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * {@code nextCursor} of a song listing: the position of the page's last song, URL-safe
+ * Base64 encoded. Browse and ranked cursors are told apart, so a cursor can't be reused
+ * with the other kind of search.
+ */
+public final class SongSearchCursor {
+
+    private static final char SEPARATOR = '\u0000';
+    private static final String BROWSE = "b";
+    private static final String RANKED = "r";
+
+    private SongSearchCursor() {
+    }
+
+    public static String encode(SongSearchPosition position, boolean fuzzy) {
+        String value = fuzzy
+                ? String.join(String.valueOf(SEPARATOR),
+                        RANKED, Float.toString(position.score()), Long.toString(position.id()))
+                : String.join(String.valueOf(SEPARATOR),
+                        BROWSE, position.artist(), position.album(), position.name(), Long.toString(position.id()));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SongSearchPosition decode(String cursor, boolean fuzzy) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(Pattern.quote(String.valueOf(SEPARATOR)), -1);
+
+            if (fuzzy && parts.length == 3 && RANKED.equals(parts[0])) {
+                return SongSearchPosition.ranked(Float.parseFloat(parts[1]), Long.parseLong(parts[2]));
+            }
+            if (!fuzzy && parts.length == 5 && BROWSE.equals(parts[0])) {
+                return SongSearchPosition.browse(parts[1], parts[2], parts[3], Long.parseLong(parts[4]));
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+
+        throw new InvalidSearchCursorException(
+                "Invalid cursor '%s'. Use the nextCursor of a previous page with the same filters".formatted(cursor)
+        );
+    }
+}
@@ -0,0 +1,78 @@
+package audiohub.service;
+
+import audiohub.dto.SongDto;
+import audiohub.repository.SongSearchPosition;
+import audiohub.repository.SongSearchRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.BiConsumer;
+
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class SongSearchService {
+
+    private final SongSearchRepository songSearchRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes {@code {"songs": [...], "nextCursor": ...}}, serializing songs as rows are read.
+     * One extra row is fetched to tell whether another page follows; {@code nextCursor} is
+     * {@code null} on the last page.
+     */
+    public void writePage(SongSearch search, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("songs");
+
+            PageWriter page = new PageWriter(generator, search.pageSize());
+            try {
+                songSearchRepository.search(search.query(), search.pageSize() + 1, page);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor",
+                    page.hasMore ? SongSearchCursor.encode(page.last, search.query().isFuzzy()) : null);
+            generator.writeEndObject();
+        }
+    }
+
+    private static final class PageWriter implements BiConsumer<SongDto, SongSearchPosition> {
+
+        private final JsonGenerator generator;
+        private final int pageSize;
+        private int written;
+        private SongSearchPosition last;
+        private boolean hasMore;
+
+        private PageWriter(JsonGenerator generator, int pageSize) {
+            this.generator = generator;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public void accept(SongDto song, SongSearchPosition position) {
+            if (written == pageSize) {
+                hasMore = true;
+                return;
+            }
+
+            try {
+                generator.writeObject(song);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            last = position;
+            written++;
+        }
+    }
+}
@@ -1,51 +1,88 @@
 package audiohub.service;
 
+import audiohub.cache.SongCache;
+import audiohub.config.BulkDeleteProps;
+import audiohub.dto.BatchCreateSongsResponse;
+import audiohub.dto.BulkDeleteResponse;
 import audiohub.dto.CreateSongResponse;
 import audiohub.dto.DeleteSongsResponse;
 import audiohub.dto.SongDto;
-import audiohub.entity.SongEntity;
 import audiohub.exception.InvalidSongIdException;
 import audiohub.exception.SongAlreadyExistsException;
 import audiohub.exception.SongNotFoundException;
 import audiohub.mapper.SongMapper;
+import audiohub.repository.SongBatchRepository;
 import audiohub.repository.SongRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 @Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class SongService {
 
-    private static final String SONGS_PRIMARY_KEY_CONSTRAINT = "songs_pkey";
+    private static final String INSERT_OBSERVATION = "songs.insert";
 
-    @PersistenceContext
-    private EntityManager entityManager;
     private final SongRepository songRepository;
+    private final SongBatchRepository songBatchRepository;
+    private final Validator validator;
     private final SongIdParser songIdParser;
     private final SongMapper mapper;
+    private final SongCache songCache;
+    private final BulkDeleteProps bulkDeleteProps;
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Inserts with a single statement that skips an existing ID, so duplicates are detected
+     * from its result instead of from a constraint violation. New songs aren't cached here:
+     * a put after the insert isn't ordered with a concurrent delete's eviction, so the first
+     * read loads them instead.
+     */
+    public CreateSongResponse createSong(SongDto songDto) {
+        if (!songBatchRepository.insertIfAbsent(songDto)) {
+            log.warn("Song metadata for resource ID {} already exists", songDto.id());
+            throw new SongAlreadyExistsException(
+                    "Metadata for resource ID=%s already exists".formatted(songDto.id())
+            );
+        }
+
+        log.info("Created song metadata for resource ID: {}", songDto.id());
 
+        return new CreateSongResponse(songDto.id());
+    }
+
+    /**
+     * Validates each song on its own and inserts the valid ones in bulk. Songs whose ID
+     * already exists, in the table or earlier in the same batch, are reported rather than
+     * failing the batch, so callers can safely resend it.
+     */
     @Transactional
-    public CreateSongResponse createSong(SongDto songDto) {
-        SongEntity entity = mapper.toEntity(songDto);
+    public BatchCreateSongsResponse createSongs(List<SongDto> songs) {
+        SongBatch batch = SongBatch.validate(songs, validator);
 
-        try {
-            entityManager.persist(entity);
-            entityManager.flush();
-            log.info("Created song metadata for resource ID: {}", entity.getId());
-            return new CreateSongResponse(entity.getId());
-        } catch (ConstraintViolationException ex) {
-            handleConstraintException(songDto.id(), ex);
-
-            throw ex;
-        }
+        Set<Long> inserted = Observation.createNotStarted(INSERT_OBSERVATION, observationRegistry)
+                .contextualName("insert songs")
+                .observe(() -> songBatchRepository.insertIgnoringExisting(batch.validSongs()));
+        BatchCreateSongsResponse response = batch.complete(inserted);
+
+        log.info("Created {} of {} songs in batch", batch.created().size(), batch.size());
+
+        return response;
     }
 
     public SongDto getSong(String id) {
@@ -58,12 +95,18 @@ public class SongService {
             );
         }
 
-        SongEntity songEntity = songRepository.findById(songId)
+        return songCache.get(songId, key -> songRepository.findById(key).map(mapper::toDto))
                 .orElseThrow(() -> new SongNotFoundException(
                         "Song metadata for ID=%s not found".formatted(id)
                 ));
+    }
 
-        return mapper.toDto(songEntity);
+    public List<SongDto> getSongs(String idCsv) {
+        return findSongs(songIdParser.parsePositiveIds(idCsv));
+    }
+
+    public List<SongDto> getSongs(List<Long> ids) {
+        return findSongs(songIdParser.parseLookupIds(ids, SongBatch.MAX_SIZE));
     }
 
     public DeleteSongsResponse deleteSongs(String idCsv) {
@@ -72,33 +115,47 @@ public class SongService {
             return new DeleteSongsResponse(Set.of());
         }
 
-        Set<Long> deletedIds = songRepository.deleteAndReturnIds(parsedIds);
+        Set<Long> deletedIds = songRepository.deleteAndReturnIds(parsedIds.toArray(Long[]::new));
+        songCache.evict(deletedIds);
 
         log.info("Deleted {} song metadata records", deletedIds.size());
 
         return new DeleteSongsResponse(deletedIds);
     }
 
-    private void handleConstraintException(Long resourceId, ConstraintViolationException ex) {
-        ConstraintViolationException constraintEx = findCause(ex, ConstraintViolationException.class);
-
-        if (constraintEx != null && SONGS_PRIMARY_KEY_CONSTRAINT.equalsIgnoreCase(constraintEx.getConstraintName())) {
-            log.warn("Song metadata for resource ID {} already exists", resourceId);
-            throw new SongAlreadyExistsException(
-                    "Metadata for resource ID=%s already exists".formatted(resourceId),
-                    ex
-            );
+    /**
+     * Deletes up to {@code bulk-delete.max-ids} songs in chunks, each in its own transaction,
+     * so no transaction holds locks for the whole list. Deleting is idempotent, so a request
+     * that fails part way can simply be repeated.
+     */
+    public BulkDeleteResponse deleteSongs(Reader idList) throws IOException {
+        long[] ids = songIdParser.parsePositiveIds(idList, bulkDeleteProps.maxIds());
+
+        int deleted = 0;
+        for (int from = 0; from < ids.length; from += bulkDeleteProps.chunkSize()) {
+            Long[] chunk = Arrays.stream(ids, from, Math.min(from + bulkDeleteProps.chunkSize(), ids.length))
+                    .boxed()
+                    .toArray(Long[]::new);
+            Set<Long> deletedIds = songRepository.deleteAndReturnIds(chunk);
+            songCache.evict(deletedIds);
+            deleted += deletedIds.size();
         }
+
+        log.info("Bulk delete removed {} of {} song metadata records", deleted, ids.length);
+
+        return new BulkDeleteResponse(ids.length, deleted);
     }
 
-    private static <T extends Throwable> T findCause(Throwable ex, Class<T> type) {
-        Throwable curr = ex;
-        while (curr != null) {
-            if (type.isInstance(curr)) {
-                return type.cast(curr);
-            }
-            curr = curr.getCause();
-        }
-        return null;
+    /**
+     * Returns the songs that exist, in the order of {@code ids}. Cache misses are loaded
+     * with a single query.
+     */
+    private List<SongDto> findSongs(Set<Long> ids) {
+        Map<Long, SongDto> songs = songCache.getAll(ids, songBatchRepository::findByIds);
+
+        return ids.stream()
+                .map(songs::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 }
\ No newline at end of file